@@ -0,0 +1,138 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.registries.GameData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks `ScreenBlock.getStateForPlacement()` when a block extends a screen and when it starts a new one (with the
+ * adjoining tiles looked up in a `ScreenIndex` as on the server) and when placed on the client (the adjoining blocks
+ * are read from an empty level). Run with `-PjmhIncludes=PlacementBenchmark -PjmhProfilers=gc` to check that a
+ * placement doesn't allocate (`gc.alloc.rate.norm` should be about 0 bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PlacementBenchmark {
+
+    /**
+     * The bottom left tile of a `NORTH` facing screen (which extends to the west and up).
+     */
+    private static final BlockPos ORIGIN = new BlockPos(17, 64, 3);
+
+    /**
+     * The position of the screen's next tile.
+     */
+    private static final BlockPos NEXT = ORIGIN.west();
+
+    /**
+     * A spread of player rotations (pitch, yaw) covering all the `Facing` values.
+     */
+    private final float[][] rotations = {
+        {0, 0}, {0, 90}, {40, 180}, {-40, -90}, {90, 0}, {-60, 180}, {40, 40}, {-75, 300}
+    };
+
+    private ScreenBlock block;
+
+    /**
+     * Holds the screen's bottom left tile.
+     */
+    private ScreenIndex index;
+
+    private ScreenIndex emptyIndex;
+
+    private BlockGetter level;
+
+    /**
+     * A level without any blocks.
+     */
+    private static class EmptyLevel implements BlockGetter {
+
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            return Blocks.AIR.defaultBlockState();
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return Fluids.EMPTY.defaultFluidState();
+        }
+
+        @Override
+        public int getHeight() {
+            return 384;
+        }
+
+        @Override
+        public int getMinBuildHeight() {
+            return -64;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        // a block can only be created once the game's registries are loaded and then unfrozen (as they are while mods
+        // register their blocks)
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        GameData.unfreezeData();
+        ShowProperties props = ShowProperties.create(new ByteArrayInputStream(
+            "{\"showName\": \"Test\", \"blocksX\": 3, \"blocksY\": 2}".getBytes(StandardCharsets.UTF_8)
+        ));
+        block = new ScreenBlock(props);
+        index = new ScreenIndex();
+        index.put(ORIGIN, props, Facing.NORTH, 0, 1);
+        emptyIndex = new ScreenIndex();
+        level = new EmptyLevel();
+    }
+
+    @Benchmark
+    public BlockState extendScreen() {
+        return block.getStateForPlacement(level, index, NEXT, null);
+    }
+
+    @Benchmark
+    public BlockState newScreen() {
+        return block.getStateForPlacement(level, emptyIndex, ORIGIN, null);
+    }
+
+    @Benchmark
+    public BlockState clientPlacement() {
+        return block.getStateForPlacement(level, null, ORIGIN, null);
+    }
+
+    /**
+     * The facing of a block placed by a player (that doesn't extend a screen).
+     */
+    @Benchmark
+    public void facingForRotation(Blackhole blackhole) {
+        for (float[] rotation: rotations) {
+            Facing facing = Facing.getFacingForRotation(rotation[0], rotation[1]);
+            blackhole.consume(facing.getOpposite());
+            blackhole.consume(ExtensionDirection.get(facing));
+        }
+    }
+}
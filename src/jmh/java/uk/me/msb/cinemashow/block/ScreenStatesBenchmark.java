@@ -0,0 +1,60 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.StateDefinition;
+import net.minecraft.world.level.block.state.properties.IntegerProperty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating the states of a show's screen block (the states and their neighbour tables are created as each
+ * block is constructed and held for the life of the game) with the tile position held by the block entity (`entity`,
+ * one state per `Facing`) and with it held in `x` and `y` block state properties as earlier versions did, for a show
+ * of up to 10 by 10 tiles (`properties10`, the earlier limit) and of up to 64 by 64 tiles (`properties64`). Run with
+ * `-PjmhIncludes=ScreenStatesBenchmark -PjmhProfilers=gc`: `gc.alloc.rate.norm` is the memory allocated for one show
+ * block's states. The number of states (and so block state variants to bake) is logged at start up (see `ModSetup`).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScreenStatesBenchmark {
+
+    @Param({"entity", "properties10", "properties64"})
+    public String layout;
+
+    /**
+     * The tile position properties (empty when held by the block entity).
+     */
+    private IntegerProperty[] tileProperties;
+
+    @Setup
+    public void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        int max = switch (layout) {
+            case "properties10" -> 10;
+            case "properties64" -> 64;
+            default -> 0;
+        };
+        tileProperties = max == 0 ? new IntegerProperty[0] : new IntegerProperty[] {
+            IntegerProperty.create("x", 0, max - 1), IntegerProperty.create("y", 0, max - 1)
+        };
+    }
+
+    @Benchmark
+    public StateDefinition<Block, BlockState> createStates() {
+        // the states only refer to their owner so any block will do
+        StateDefinition.Builder<Block, BlockState> builder = new StateDefinition.Builder<>(Blocks.STONE);
+        builder.add(ScreenBlock.FACING);
+        builder.add(tileProperties);
+        return builder.create(Block::defaultBlockState, BlockState::new);
+    }
+}
@@ -0,0 +1,56 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.openjdk.jmh.annotations.*;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks scaling a single source frame down to the width of a show.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImageScalerBenchmark {
+
+    @Param({"1920", "3840"})
+    public int sourceWidth;
+
+    @Param({"5", "10"})
+    public int blocksX;
+
+    @Param({"NEAREST", "BOX", "LANCZOS"})
+    public ScaleFilter filter;
+
+    /**
+     * Decoded JPEGs are `TYPE_3BYTE_BGR`.
+     */
+    @Param({"3BYTE_BGR", "INT_RGB"})
+    public String imageType;
+
+    private BufferedImage source;
+
+    private ImageScaler scaler;
+
+    private int width;
+
+    private int height;
+
+    @Setup
+    public void setup() {
+        int type = imageType.equals("INT_RGB") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_3BYTE_BGR;
+        source = SyntheticFrames.frame(sourceWidth, sourceWidth * 9 / 16, 0, type);
+        scaler = new ImageScaler(filter);
+        width = blocksX * ShowProperties.PIXELS_PER_BLOCK;
+        height = width * source.getHeight() / source.getWidth();
+    }
+
+    @Benchmark
+    public BufferedImage scale() {
+        return scaler.scale(source, width, height);
+    }
+}
@@ -0,0 +1,52 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.openjdk.jmh.annotations.*;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encoding a single animated texture image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PngEncoderBenchmark {
+
+    @Param({"100", "1000", "3000"})
+    public int frameCount;
+
+    @Param({"FAST", "BALANCED", "MAX"})
+    public PngMode mode;
+
+    private BufferedImage texture;
+
+    private PngEncoder encoder;
+
+    @Setup
+    public void setup() {
+        // a column of a synthetic frame is used as the texture
+        BufferedImage frame = SyntheticFrames.frame(
+            ShowProperties.PIXELS_PER_BLOCK * 4, ShowProperties.PIXELS_PER_BLOCK * frameCount,
+            0, BufferedImage.TYPE_INT_RGB
+        );
+        texture = new BufferedImage(
+            ShowProperties.PIXELS_PER_BLOCK, frame.getHeight(), BufferedImage.TYPE_INT_RGB
+        );
+        texture.getGraphics().drawImage(frame, 0, 0, null);
+        encoder = new PngEncoder(mode);
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encoder.write(texture, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,76 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks processing a whole show (decoding, scaling, tiling and writing the textures) from a
+ * synthetic show folder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ProcessShowBenchmark {
+
+    @Param({"1280", "3840"})
+    public int sourceWidth;
+
+    @Param({"50", "200"})
+    public int frameCount;
+
+    @Param({"5", "10"})
+    public int blocksX;
+
+    private Path workDir;
+
+    private File showDir;
+
+    private GenerateTextures generateTextures;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("cinemashow-benchmark");
+        showDir = workDir.resolve("source").resolve("show").toFile();
+        Files.createDirectories(showDir.toPath());
+        try (Writer writer = new FileWriter(new File(showDir, GenerateTextures.METADATA_FILENAME))) {
+            writer.write(String.format("{\"showName\": \"benchmark\", \"blocksX\": %d}", blocksX));
+        }
+        // a few distinct frames are repeated with every other frame held so that the tile
+        // deduplication has something to do
+        for (int i = 0; i < frameCount; i ++) {
+            BufferedImage frame = SyntheticFrames.frame(sourceWidth, sourceWidth * 9 / 16, i / 2 % 10, BufferedImage.TYPE_INT_RGB);
+            ImageIO.write(frame, "png", new File(showDir, String.format("frame %05d.png", i)));
+        }
+        Path assetsDir = workDir.resolve("assets");
+        Files.createDirectories(assetsDir.resolve("textures").resolve("block"));
+        generateTextures = new GenerateTextures(
+            showDir.getParent(), assetsDir.toString(), GeneratorOptions.parse(new String[0])
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public ShowOutputs processShow() throws IOException {
+        return generateTextures.processShow(showDir);
+    }
+}
@@ -0,0 +1,49 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scaling context's per-frame and per-show calculations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ShowScalingContextBenchmark {
+
+    @Param({"5", "10"})
+    public int blocks;
+
+    /**
+     * Whether `blocksX` (rather than `blocksY`) is defined.
+     */
+    @Param({"true", "false"})
+    public boolean xDefined;
+
+    private ShowScalingContext context;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new ShowScalingContext(SyntheticFrames.properties(xDefined ? blocks : 0, xDefined ? 0 : blocks));
+        context.getScaleForImage(1920, 1080);
+    }
+
+    @Benchmark
+    public Dimension getScaleForImage() {
+        return context.getScaleForImage(1920, 1080);
+    }
+
+    @Benchmark
+    public void positions(Blackhole blackhole) {
+        for (Point position: context.positions()) {
+            blackhole.consume(position);
+        }
+    }
+}
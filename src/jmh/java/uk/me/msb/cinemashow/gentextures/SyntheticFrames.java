@@ -0,0 +1,52 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Helpers for creating the synthetic inputs used by the benchmarks.
+ */
+public class SyntheticFrames {
+
+    /**
+     * Creates a frame image with a gradient background and some noise (so that it compresses
+     * like a real frame rather than a flat colour).
+     *
+     * @param width  the frame's width
+     * @param height the frame's height
+     * @param seed   varies the frame's content
+     * @param type   the image type
+     * @return the frame image
+     */
+    public static BufferedImage frame(int width, int height, int seed, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(seed * 37 % 256, 40, 90), width, height, Color.ORANGE));
+        graphics.fillRect(0, 0, width, height);
+        Random random = new Random(seed);
+        for (int i = 0; i < 200; i ++) {
+            graphics.setColor(new Color(random.nextInt()));
+            graphics.fillRect(random.nextInt(width), random.nextInt(height), width / 20 + 1, height / 20 + 1);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * @param blocksX the show's `blocksX` (0 if `blocksY` is given)
+     * @param blocksY the show's `blocksY` (0 if `blocksX` is given)
+     * @return the properties of a synthetic show
+     */
+    public static ShowProperties properties(int blocksX, int blocksY) throws IOException {
+        String json = blocksY == 0
+                ? String.format("{\"showName\": \"benchmark\", \"blocksX\": %d}", blocksX)
+                : String.format("{\"showName\": \"benchmark\", \"blocksY\": %d}", blocksY);
+        return ShowProperties.create(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
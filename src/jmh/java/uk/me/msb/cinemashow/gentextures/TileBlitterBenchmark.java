@@ -0,0 +1,75 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.openjdk.jmh.annotations.*;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks copying all the frames of a show into the show's texture images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TileBlitterBenchmark {
+
+    @Param({"5", "10"})
+    public int blocksX;
+
+    @Param({"5", "10"})
+    public int blocksY;
+
+    @Param({"100", "1000"})
+    public int frameCount;
+
+    @Param({"0", "8"})
+    public int dedupTolerance;
+
+    /**
+     * A handful of distinct scaled frames that are cycled through.
+     */
+    private BufferedImage[] frames;
+
+    private List<Point> positions;
+
+    private List<BufferedImage> outputImages;
+
+    @Setup
+    public void setup() {
+        frames = new BufferedImage[8];
+        for (int i = 0; i < frames.length; i ++) {
+            frames[i] = SyntheticFrames.frame(
+                blocksX * ShowProperties.PIXELS_PER_BLOCK, blocksY * ShowProperties.PIXELS_PER_BLOCK,
+                i, BufferedImage.TYPE_INT_RGB
+            );
+        }
+        positions = new ArrayList<>();
+        outputImages = new ArrayList<>();
+        for (int y = 0; y < blocksY; y ++) {
+            for (int x = 0; x < blocksX; x ++) {
+                positions.add(new Point(x, y));
+                outputImages.add(new BufferedImage(
+                    ShowProperties.PIXELS_PER_BLOCK, ShowProperties.PIXELS_PER_BLOCK * frameCount,
+                    BufferedImage.TYPE_INT_RGB
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public TileBlitter blitShow() {
+        TileBlitter blitter = new TileBlitter(positions, outputImages, dedupTolerance);
+        Point offset = new Point();
+        for (int i = 0; i < frameCount; i ++) {
+            blitter.blit(frames[i % frames.length], offset, 1);
+        }
+        return blitter;
+    }
+}
@@ -1,8 +1,11 @@
 package uk.me.msb.cinemashow;
 
 import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import uk.me.msb.cinemashow.setup.ClientConfig;
 import uk.me.msb.cinemashow.setup.ModSetup;
 import uk.me.msb.cinemashow.setup.Registration;
 
@@ -20,6 +23,9 @@ public class CinemaShow {
         // Register the deferred registries
         Registration.init();
 
+        // Register the client settings (e.g. the texture resolution tier)
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, ClientConfig.SPEC);
+
         // Register the setup method for modloading
         IEventBus modbus = FMLJavaModLoadingContext.get().getModEventBus();
         modbus.addListener(ModSetup::init);
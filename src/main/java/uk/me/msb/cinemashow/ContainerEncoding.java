@@ -0,0 +1,33 @@
+package uk.me.msb.cinemashow;
+
+/**
+ * How the frame records of a show container (see `ShowContainer`) are stored.
+ */
+public enum ContainerEncoding {
+    /**
+     * Uncompressed RGB (every record is the same size).
+     */
+    RAW,
+    /**
+     * RGB compressed with a fast deflate level (each record is inflated on its own).
+     */
+    DEFLATE,
+    /**
+     * Deflated keyframes at a fixed interval, the other frames only hold the tiles that changed since the previous
+     * frame (see `ShowContainer`).
+     */
+    DELTA;
+
+    /**
+     * @param id the encoding's id in a container header
+     * @return the encoding
+     * @throws IllegalArgumentException if the id is unknown
+     */
+    public static ContainerEncoding fromId(int id) {
+        ContainerEncoding[] values = values();
+        if (id < 0 || id >= values.length) {
+            throw new IllegalArgumentException(String.format("Unknown container encoding: %d", id));
+        }
+        return values[id];
+    }
+}
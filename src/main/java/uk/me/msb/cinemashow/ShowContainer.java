@@ -0,0 +1,370 @@
+package uk.me.msb.cinemashow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a show container: a single file holding all of a show's frames, written by `GenerateTextures`. It is
+ * designed to be memory mapped and read randomly, a frame's record is found from the offset index without reading
+ * any other frame. The layout (big endian) is:
+ * <pre>
+ * int     magic ("CSFC")
+ * short   version
+ * short   encoding (see `ContainerEncoding`)
+ * int     tileSize, blocksX, blocksY
+ * int     frameCount
+ * int     keyframeInterval
+ * int[]   frame times in ticks (frameCount)
+ * long[]  record offsets from the start of the file (frameCount + 1, the last is the end of the file)
+ * byte[]  frame records (possibly preceded by unused bytes, see `ShowContainerWriter`)
+ * </pre>
+ * Containers are limited to 2GB (the largest region that can be mapped). A decoded frame record holds the frame's
+ * tiles in row order (tile `y` 0 is the top row), each tile holds it's pixels in row order as RGB bytes.
+ * <p>
+ * With `ContainerEncoding.DELTA` every `keyframeInterval`th frame (starting from the first) is a keyframe stored as
+ * a deflated frame record. The other frames are deflated delta records: a bit set (one bit per tile in row order,
+ * least significant bit first) of the tiles that changed since the previous frame followed by those tiles. A frame
+ * is decoded by applying the deltas since the nearest keyframe. The keyframe interval is 1 for the other encodings.
+ * <p>
+ * Instances aren't safe for concurrent reads.
+ */
+public class ShowContainer {
+
+    /**
+     * The extension of a show container file.
+     */
+    public static final String EXTENSION = "show";
+
+    /**
+     * Identifies the file ("CSFC").
+     */
+    public static final int MAGIC = 0x43534643;
+
+    /**
+     * Bumped when the format changes.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The number of bytes used by a pixel in a decoded frame record.
+     */
+    public static final int BYTES_PER_PIXEL = 3;
+
+    /**
+     * The length of the header preceding the frame times.
+     */
+    public static final int HEADER_LENGTH = 28;
+
+    /**
+     * The container's contents.
+     */
+    private final ByteBuffer buffer;
+
+    private final ContainerEncoding encoding;
+
+    private final int tileSize;
+
+    private final int blocksX;
+
+    private final int blocksY;
+
+    private final int frameCount;
+
+    private final int keyframeInterval;
+
+    /**
+     * Holds a decoded delta record (allocated on first use).
+     */
+    private byte[] delta;
+
+    /**
+     * The position of the frame times in `buffer`.
+     */
+    private final int timesPosition;
+
+    /**
+     * The position of the record offsets in `buffer`.
+     */
+    private final int offsetsPosition;
+
+    private ShowContainer(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a show container");
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported show container version: %d", version));
+        }
+        encoding = ContainerEncoding.fromId(buffer.getShort(6));
+        tileSize = buffer.getInt(8);
+        blocksX = buffer.getInt(12);
+        blocksY = buffer.getInt(16);
+        frameCount = buffer.getInt(20);
+        keyframeInterval = buffer.getInt(24);
+        if (keyframeInterval <= 0) {
+            throw new IOException(String.format("Bad keyframe interval: %d", keyframeInterval));
+        }
+        timesPosition = HEADER_LENGTH;
+        offsetsPosition = timesPosition + frameCount * Integer.BYTES;
+    }
+
+    /**
+     * Opens and memory maps a container file on the default file system.
+     *
+     * @param path the container file
+     * @return the container
+     * @throws IOException possible error when reading the file, if it is over 2GB or if it isn't a container of this
+     * version
+     */
+    public static ShowContainer open(Path path) throws IOException {
+        if (path.getFileSystem() != FileSystems.getDefault()) {
+            throw new IOException(String.format(
+                "Show container %s can't be mapped from %s", path, path.getFileSystem()
+            ));
+        }
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format(
+                    "Show container %s is %d bytes, over the 2GB limit", path, size
+                ));
+            }
+            return new ShowContainer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Opens and memory maps a container file. A file that isn't on the default file system (i.e. in the mod's jar)
+     * can't be mapped so it is first extracted to `cacheDir` (once, the copy is reused while it's size and modified
+     * time match the original).
+     *
+     * @param path     the container file
+     * @param cacheDir where a container that can't be mapped in place is extracted to
+     * @return the container
+     * @throws IOException possible error when reading or extracting the file, if it is over 2GB or if it isn't a
+     * container of this version
+     */
+    public static ShowContainer open(Path path, Path cacheDir) throws IOException {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return open(path);
+        }
+        Path extracted = cacheDir.resolve(path.getFileName().toString());
+        long size = Files.size(path);
+        FileTime modified = Files.getLastModifiedTime(path);
+        if (!Files.isRegularFile(extracted) || Files.size(extracted) != size
+            || !Files.getLastModifiedTime(extracted).equals(modified)) {
+            Files.createDirectories(cacheDir);
+            Path temp = Files.createTempFile(cacheDir, extracted.getFileName().toString(), ".tmp");
+            try {
+                Files.copy(path, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(temp, modified);
+                Files.move(temp, extracted, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return open(extracted);
+    }
+
+    /**
+     * @param buffer a container's contents
+     * @return the container
+     * @throws IOException if the buffer isn't a container of this version
+     */
+    public static ShowContainer wrap(ByteBuffer buffer) throws IOException {
+        return new ShowContainer(buffer);
+    }
+
+    public ContainerEncoding getEncoding() {
+        return encoding;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getBlocksX() {
+        return blocksX;
+    }
+
+    public int getBlocksY() {
+        return blocksY;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * @return the number of tiles in a frame
+     */
+    public int getTileCount() {
+        return blocksX * blocksY;
+    }
+
+    /**
+     * @param frame a frame's index
+     * @return whether the frame's record can be decoded without any other frame
+     */
+    public boolean isKeyframe(int frame) {
+        return frame % keyframeInterval == 0;
+    }
+
+    /**
+     * @param frame a frame's index
+     * @return the frame's time in ticks
+     */
+    public int getFrameTime(int frame) {
+        return buffer.getInt(timesPosition + frame * Integer.BYTES);
+    }
+
+    /**
+     * @return the length of a decoded frame record in bytes
+     */
+    public int getFrameLength() {
+        return blocksX * blocksY * tileSize * tileSize * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * @param frame a frame's index
+     * @return the frame's (encoded) record (a view of the container, nothing is copied)
+     * @throws IOException if the record's offsets are outside of the container
+     */
+    public ByteBuffer getRecord(int frame) throws IOException {
+        if (frame < 0 || frame >= frameCount) {
+            throw new IndexOutOfBoundsException(frame);
+        }
+        long start = buffer.getLong(offsetsPosition + frame * Long.BYTES);
+        long end = buffer.getLong(offsetsPosition + (frame + 1) * Long.BYTES);
+        if (start < 0 || start > end || end > buffer.limit()) {
+            throw new IOException(String.format(
+                "Bad offsets for frame %d: %d to %d in a %d byte container", frame, start, end, buffer.limit()
+            ));
+        }
+        return buffer.slice((int) start, (int) (end - start));
+    }
+
+    /**
+     * Decodes a frame (from the nearest keyframe for `ContainerEncoding.DELTA`).
+     *
+     * @param frame  a frame's index
+     * @param pixels receives the decoded frame record (`getFrameLength()` long)
+     * @throws IOException if a record is corrupt
+     */
+    public void readFrame(int frame, byte[] pixels) throws IOException {
+        readFrame(frame, pixels, -1);
+    }
+
+    /**
+     * Decodes a frame given the frame already in `pixels`. When playing forwards this only applies the frame's delta.
+     *
+     * @param frame   a frame's index
+     * @param pixels  holds the decoded record of `current` and receives the decoded frame record
+     * @param current the index of the frame in `pixels` (-1 if there isn't one)
+     * @throws IOException if a record is corrupt
+     */
+    public void readFrame(int frame, byte[] pixels, int current) throws IOException {
+        switch (encoding) {
+            case RAW -> copyFrame(getRecord(frame), pixels);
+            case DEFLATE -> inflateFrame(getRecord(frame), pixels);
+            case DELTA -> {
+                int keyframe = frame - frame % keyframeInterval;
+                int next;
+                if (current >= keyframe && current <= frame) {
+                    next = current + 1;
+                } else {
+                    inflateFrame(getRecord(keyframe), pixels);
+                    next = keyframe + 1;
+                }
+                for (int f = next; f <= frame; f ++) {
+                    applyDelta(getRecord(f), pixels);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the changed tiles of a delta record over the previous frame.
+     */
+    private void applyDelta(ByteBuffer record, byte[] pixels) throws IOException {
+        int tileCount = getTileCount();
+        int tileLength = tileSize * tileSize * BYTES_PER_PIXEL;
+        int bitsLength = (tileCount + 7) / 8;
+        if (delta == null) {
+            delta = new byte[bitsLength + getFrameLength()];
+        }
+        int length = inflate(record, delta);
+        int position = bitsLength;
+        for (int tile = 0; tile < tileCount; tile ++) {
+            if ((delta[tile >> 3] & 1 << (tile & 7)) != 0) {
+                if (position + tileLength > length) {
+                    throw new IOException("Truncated delta record");
+                }
+                System.arraycopy(delta, position, pixels, tile * tileLength, tileLength);
+                position += tileLength;
+            }
+        }
+    }
+
+    private void copyFrame(ByteBuffer record, byte[] pixels) throws IOException {
+        if (record.remaining() != getFrameLength()) {
+            throw new IOException("Truncated frame record");
+        }
+        record.get(pixels, 0, getFrameLength());
+    }
+
+    private void inflateFrame(ByteBuffer record, byte[] pixels) throws IOException {
+        if (inflate(record, pixels) != getFrameLength()) {
+            throw new IOException("Truncated frame record");
+        }
+    }
+
+    /**
+     * @param record  a deflated record
+     * @param decoded receives the inflated record
+     * @return the length of the inflated record
+     * @throws IOException if the record is corrupt or longer than `decoded`
+     */
+    private static int inflate(ByteBuffer record, byte[] decoded) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(record);
+            int read = 0;
+            while (!inflater.finished()) {
+                if (read == decoded.length) {
+                    // the end of the stream may not have been reached when the output filled up
+                    if (inflater.inflate(new byte[1]) != 0) {
+                        throw new IOException("Oversized frame record");
+                    }
+                    if (!inflater.finished()) {
+                        throw new IOException("Truncated frame record");
+                    }
+                    break;
+                }
+                int inflated = inflater.inflate(decoded, read, decoded.length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IOException("Truncated frame record");
+                }
+                read += inflated;
+            }
+            return read;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt frame record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -7,7 +7,10 @@ import org.slf4j.Logger;
 
 import java.io.*;
 import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -20,9 +23,40 @@ public class ShowProperties {
     private static final Logger LOGGER = LogUtils.getLogger();
 
     /**
-     * The name of the resource file that contains an index of all the shows built into the mod.
+     * How many pixels per MC block (along a single axis) of the textures built into the mod.
      */
-    public static final String SHOWINDEX_FILENAME = "shows.json";
+    public static final int PIXELS_PER_BLOCK = 16;
+
+    /**
+     * The smallest texture resolution tier (pixels per block).
+     */
+    public static final int MIN_TIER = 4;
+
+    /**
+     * The largest texture resolution tier (pixels per block).
+     */
+    public static final int MAX_TIER = 256;
+
+    /**
+     * The folder (in the root of the mod's resources) holding the resource packs of the texture resolution tiers.
+     */
+    public static final String TIER_PACKS_DIR = "resourcepacks";
+
+    /**
+     * The name format of a texture resolution tier's resource pack (given the tier's pixels per block).
+     */
+    public static final String TIER_PACK_FORMAT = "tier_%d";
+
+    /**
+     * The folder (in the root of the mod's assets) holding the show containers (see `ShowContainer`).
+     */
+    public static final String STREAMS_DIR = "streams";
+
+    /**
+     * The `playback` value of a show that is streamed a frame at a time by a block entity renderer (rather than baked
+     * into animated block textures).
+     */
+    public static final String PLAYBACK_STREAM = "stream";
 
     /**
      * Gson instance for mod.
@@ -30,14 +64,20 @@ public class ShowProperties {
     public static final Gson GSON = new Gson();
 
     /**
-     * Upper limit of blocksX.
+     * Upper limit of blocksX (the tile position is held by the block entity so this doesn't affect the number of
+     * block states).
      */
-    public static final int BLOCKS_X_MAX = 10;
+    public static final int BLOCKS_X_MAX = 64;
 
     /**
      * Upper limit of blocksY.
      */
-    public static final int BLOCKS_Y_MAX = 10;
+    public static final int BLOCKS_Y_MAX = 64;
+
+    /**
+     * Default value if neither `blocksX` or `blocksY` is set (sets `blocksX`).
+     */
+    public static final int DEFAULT_BLOCKS_X = 10;
 
     /**
      * Default value if `franeTime` not set.
@@ -70,6 +110,24 @@ public class ShowProperties {
      */
     private int blocksY;
 
+    /**
+     * How the show is played: `stream` for long shows or shows with many tiles (see `PLAYBACK_STREAM`), otherwise the
+     * show is baked into animated block textures.
+     */
+    private String playback;
+
+    /**
+     * The encoding of a streamed show's container (the name of a `ContainerEncoding`, delta if not given). Only used
+     * when generating so it isn't held in the registry.
+     */
+    private String container;
+
+    /**
+     * The tile textures shared by more than one tile position (set by `GenerateTextures`), keyed on
+     * `{x}_{y}`. Positions that aren't present use their own texture.
+     */
+    private Map<String, String> sharedTextures;
+
     /**
      * The JSON string created from `frameTime` for the texture `mcmeta` file.
      */
@@ -121,6 +179,10 @@ public class ShowProperties {
         this.blocksY = blocksY;
     }
 
+    public int getFrameTime() {
+        return frameTime;
+    }
+
     /**
      * Validates `frameTime`.
      */
@@ -131,6 +193,44 @@ public class ShowProperties {
         this.frameTime = frameTime;
     }
 
+    /**
+     * @return whether the show is streamed a frame at a time rather than baked into animated block textures
+     */
+    public boolean isStreamed() {
+        return PLAYBACK_STREAM.equals(playback);
+    }
+
+    /**
+     * @return the encoding of a streamed show's container (null if not given)
+     */
+    public ContainerEncoding getContainerEncoding() {
+        return container == null ? null : ContainerEncoding.valueOf(container.toUpperCase());
+    }
+
+    /**
+     * @param x the tile's x position
+     * @param y the tile's y position
+     * @return the name of the texture for the tile position
+     */
+    public String getTileTexture(int x, int y) {
+        String texture = sharedTextures == null ? null : sharedTextures.get(String.format("%d_%d", x, y));
+        return texture != null ? texture : String.format("%s_%d_%d", blockName, x, y);
+    }
+
+    /**
+     * Records that a tile position uses the texture of another tile position.
+     *
+     * @param x the tile's x position
+     * @param y the tile's y position
+     * @param texture the name of the shared texture
+     */
+    public void setSharedTexture(int x, int y, String texture) {
+        if (sharedTextures == null) {
+            sharedTextures = new TreeMap<>();
+        }
+        sharedTextures.put(String.format("%d_%d", x, y), texture);
+    }
+
     public String getMcmeta() {
         return mcmeta;
     }
@@ -152,10 +252,20 @@ public class ShowProperties {
         }
         props.mcmeta = createMcmeta(props.frameTime);
         if (props.blocksX == 0 && props.blocksY == 0) {
-            props.setBlocksX(ShowProperties.BLOCKS_X_MAX);
+            props.setBlocksX(ShowProperties.DEFAULT_BLOCKS_X);
             LOGGER.warn("Neither `blocksX` nor `blocksY` are defined - setting `blocksX` to {}", props.blocksX);
 
         }
+        if (props.playback != null && !props.isStreamed()) {
+            throw new IllegalArgumentException(String.format("Unknown playback: %s", props.playback));
+        }
+        if (props.container != null) {
+            try {
+                props.getContainerEncoding();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Unknown container: %s", props.container), e);
+            }
+        }
         return props;
     }
 
@@ -178,6 +288,92 @@ public class ShowProperties {
         return writer.toString();
     }
 
+    /**
+     * Serialises the times of a texture's frames as a JSON string for the texture `mcmeta` file. If all the frames
+     * have the same time only `frametime` is written, otherwise a `frames` list is written in which frames that don't
+     * match `frameTime` are given an explicit `time`.
+     *
+     * @param frameTime the show's animation rate
+     * @param frameTimes the time in ticks of each of the texture's frames
+     * @return JSON string
+     * @throws IOException Errors resulting from writing `mcmeta`.
+     */
+    public static String createMcmeta(int frameTime, int[] frameTimes) throws IOException {
+        if (Arrays.stream(frameTimes).allMatch(time -> time == frameTimes[0])) {
+            return createMcmeta(frameTimes[0]);
+        }
+        StringWriter writer = new StringWriter();
+        JsonWriter json = GSON.newJsonWriter(writer);
+        json.beginObject();
+        json.name("animation").beginObject();
+        json.name("frametime").value(frameTime);
+        json.name("frames").beginArray();
+        for (int index = 0; index < frameTimes.length; index ++) {
+            if (frameTimes[index] == frameTime) {
+                json.value(index);
+            } else {
+                json.beginObject();
+                json.name("index").value(index);
+                json.name("time").value(frameTimes[index]);
+                json.endObject();
+            }
+        }
+        json.endArray();
+        json.endObject();
+        json.endObject();
+        json.close();
+        return writer.toString();
+    }
+
+    /**
+     * Writes the properties (including the derived `blockName` and `mcmeta`) for the precompiled show registry.
+     *
+     * @param output the registry's output
+     * @throws IOException Errors resulting from writing the output.
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeUTF(blockName);
+        output.writeUTF(showName);
+        output.writeInt(frameTime);
+        output.writeInt(blocksX);
+        output.writeInt(blocksY);
+        output.writeUTF(mcmeta);
+        output.writeUTF(playback == null ? "" : playback);
+        Map<String, String> shared = sharedTextures == null ? Map.of() : sharedTextures;
+        output.writeInt(shared.size());
+        for (Map.Entry<String, String> entry: shared.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+    }
+
+    /**
+     * Reads properties written by `write()`. They have already been validated so are read as is.
+     *
+     * @param input the registry's input
+     * @return The show properties.
+     * @throws IOException Errors resulting from reading the input.
+     */
+    public static ShowProperties read(DataInput input) throws IOException {
+        ShowProperties props = new ShowProperties();
+        props.blockName = input.readUTF();
+        props.showName = input.readUTF();
+        props.frameTime = input.readInt();
+        props.blocksX = input.readInt();
+        props.blocksY = input.readInt();
+        props.mcmeta = input.readUTF();
+        String playback = input.readUTF();
+        props.playback = playback.isEmpty() ? null : playback;
+        int sharedCount = input.readInt();
+        if (sharedCount > 0) {
+            props.sharedTextures = new TreeMap<>();
+            for (int i = 0; i < sharedCount; i ++) {
+                props.sharedTextures.put(input.readUTF(), input.readUTF());
+            }
+        }
+        return props;
+    }
+
     /**
      * Saves properties to `metadata` file.
      * @param metadata file to write data to
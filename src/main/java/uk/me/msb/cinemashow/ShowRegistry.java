@@ -0,0 +1,70 @@
+package uk.me.msb.cinemashow;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The precompiled show registry: a single binary resource written by `GenerateTextures` holding the properties of
+ * every show (with the block names and `mcmeta` already computed). It is read in one sequential pass when the mod
+ * is constructed so no per-show resources are opened and no JSON is parsed.
+ */
+public class ShowRegistry {
+
+    /**
+     * The name of the resource file (saved in the root of the mod's assets).
+     */
+    public static final String REGISTRY_FILENAME = "shows.bin";
+
+    /**
+     * Identifies the file ("CSHR").
+     */
+    private static final int MAGIC = 0x43534852;
+
+    /**
+     * Bumped when the format changes.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * Writes the registry.
+     *
+     * @param output the output stream
+     * @param shows  the properties of all the shows in registration order
+     * @throws IOException possible error when writing the stream
+     */
+    public static void write(OutputStream output, List<ShowProperties> shows) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(shows.size());
+        for (ShowProperties show: shows) {
+            show.write(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a registry written by `write()`.
+     *
+     * @param input the input stream
+     * @return the properties of all the shows in registration order
+     * @throws IOException possible error when reading the stream or if it isn't a registry of this version
+     */
+    public static List<ShowProperties> read(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a show registry");
+        }
+        int version = data.readShort();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported show registry version: %d", version));
+        }
+        int count = data.readInt();
+        List<ShowProperties> shows = new ArrayList<>(count);
+        for (int i = 0; i < count; i ++) {
+            shows.add(ShowProperties.read(data));
+        }
+        return shows;
+    }
+}
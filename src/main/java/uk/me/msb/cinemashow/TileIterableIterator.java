@@ -1,6 +1,5 @@
 package uk.me.msb.cinemashow;
 
-import org.apache.commons.lang3.NotImplementedException;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
@@ -8,63 +7,151 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * A partially implemented `Iterable` that iterates over the positions of all the show's tiles.
- * For simplicity the class also implements the `Iterator` so `Iterable.iterator()` just
- * returns `this`.
+ * An `Iterable` that iterates over the positions of all the show's tiles (row by row from the top
+ * left). Each call to `iterator()` or `spliterator()` starts a new iteration, so the positions can
+ * be iterated any number of times and, as the spliterator splits on the tile indexes, in
+ * parallel. A position's index in the iteration is `y * blocksX + x` (see `indexOf()`).
  */
-public class TileIterableIterator implements Iterable<Point>, Iterator<Point> {
+public class TileIterableIterator implements Iterable<Point> {
 
     /**
-     * Tracks the next value for `Iterator.next()` and is set to `null` on completion.
+     * The number of tiles along the x axis (when the iterable was created).
      */
-    private Point next = new Point();
+    private final int blocksX;
 
     /**
-     * The show's metadata.
+     * The number of tiles.
      */
-    final private ShowProperties props;
+    private final int tileCount;
 
     public TileIterableIterator(ShowProperties props) {
-        this.props = props;
+        this.blocksX = props.getBlocksX();
+        this.tileCount = props.getBlocksX() * props.getBlocksY();
+    }
+
+    /**
+     * @return the number of positions
+     */
+    public int size() {
+        return tileCount;
+    }
+
+    /**
+     * @param position a tile position
+     * @return the position's index in the iteration
+     */
+    public int indexOf(Point position) {
+        return position.y * blocksX + position.x;
+    }
+
+    /**
+     * @param index an index in the iteration
+     * @return the tile position at the index
+     */
+    private Point position(int index) {
+        return new Point(index % blocksX, index / blocksX);
     }
 
     @NotNull
     @Override
     public Iterator<Point> iterator() {
-        return this;
+        return new Iterator<>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < tileCount;
+            }
+
+            @Override
+            public Point next() {
+                if (index >= tileCount) {
+                    throw new NoSuchElementException();
+                }
+                return position(index ++);
+            }
+        };
     }
 
     @Override
-    public boolean hasNext() {
-        return next != null;
+    public void forEach(Consumer<? super Point> action) {
+        for (int index = 0; index < tileCount; index ++) {
+            action.accept(position(index));
+        }
     }
 
     @Override
-    public Point next() {
-        if (next == null) {
-            throw new NoSuchElementException();
+    public Spliterator<Point> spliterator() {
+        return new TileSpliterator(0, tileCount);
+    }
+
+    /**
+     * @return a parallel stream of the positions
+     */
+    public Stream<Point> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Covers a range of the tile indexes and splits it in half.
+     */
+    private class TileSpliterator implements Spliterator<Point> {
+
+        /**
+         * The index of the next position.
+         */
+        private int index;
+
+        /**
+         * One past the last index covered.
+         */
+        private final int fence;
+
+        TileSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Point> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(position(index ++));
+            return true;
         }
-        Point copyOfNext = next.getLocation();
-        next.translate(1, 0);
-        if (next.x == props.getBlocksX()) {
-            next.x = 0;
-            next.translate(0, 1);
+
+        @Override
+        public void forEachRemaining(Consumer<? super Point> action) {
+            for (; index < fence; index ++) {
+                action.accept(position(index));
+            }
         }
-        if (next.y == props.getBlocksY()) {
-            next = null;
+
+        @Override
+        public Spliterator<Point> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<Point> prefix = new TileSpliterator(index, middle);
+            index = middle;
+            return prefix;
         }
-        return copyOfNext;
-    }
 
-    @Override
-    public void forEach(Consumer<? super Point> action) {
-        throw new NotImplementedException();
-    }
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
 
-    @Override
-    public Spliterator<Point> spliterator() {
-        throw new NotImplementedException();
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
     }
 }
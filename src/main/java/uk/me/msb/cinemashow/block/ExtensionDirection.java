@@ -2,9 +2,6 @@ package uk.me.msb.cinemashow.block;
 
 import net.minecraft.core.Direction;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * This record represents the valid directions in which a placed show block can be extended. When a block of show A is
  * placed next to an existing show A block, it's `Facing` is checked against EXTENSIONS and if the direction of the new
@@ -16,50 +13,30 @@ import java.util.Map;
 public record ExtensionDirection(Direction x, Direction y) {
 
     /**
-     * A map of all possible `Facing` values and their valid extension directions.
+     * The valid extension directions of all possible `Facing` values indexed on the `Facing`'s ordinal.
      */
-    private final static Map<Facing, ExtensionDirection> EXTENSIONS = new HashMap<>();
+    private final static ExtensionDirection[] EXTENSIONS = new ExtensionDirection[Facing.values().length];
 
     static {
-        EXTENSIONS.put(
-                Facing.NORTH, new ExtensionDirection(Direction.WEST, Direction.UP)
-        );
-        EXTENSIONS.put(
-                Facing.EAST, new ExtensionDirection(Direction.NORTH, Direction.UP)
-        );
-        EXTENSIONS.put(
-                Facing.SOUTH, new ExtensionDirection(Direction.EAST, Direction.UP)
-        );
-        EXTENSIONS.put(
-                Facing.WEST, new ExtensionDirection(Direction.SOUTH, Direction.UP)
-        );
-        EXTENSIONS.put(
-                Facing.NORTH_DOWN, new ExtensionDirection(Direction.WEST, Direction.NORTH)
-        );
-        EXTENSIONS.put(
-                Facing.EAST_DOWN, new ExtensionDirection(Direction.NORTH, Direction.EAST)
-        );
-        EXTENSIONS.put(
-                Facing.SOUTH_DOWN, new ExtensionDirection(Direction.EAST, Direction.SOUTH)
-        );
-        EXTENSIONS.put(
-                Facing.WEST_DOWN, new ExtensionDirection(Direction.SOUTH, Direction.WEST)
-        );
-        EXTENSIONS.put(
-                Facing.NORTH_UP, new ExtensionDirection(Direction.WEST, Direction.SOUTH)
-        );
-        EXTENSIONS.put(
-                Facing.EAST_UP, new ExtensionDirection(Direction.NORTH, Direction.WEST)
-        );
-        EXTENSIONS.put(
-                Facing.SOUTH_UP, new ExtensionDirection(Direction.EAST, Direction.NORTH)
-        );
-        EXTENSIONS.put(
-                Facing.WEST_UP, new ExtensionDirection(Direction.SOUTH, Direction.EAST)
-        );
+        put(Facing.NORTH, Direction.WEST, Direction.UP);
+        put(Facing.EAST, Direction.NORTH, Direction.UP);
+        put(Facing.SOUTH, Direction.EAST, Direction.UP);
+        put(Facing.WEST, Direction.SOUTH, Direction.UP);
+        put(Facing.NORTH_DOWN, Direction.WEST, Direction.NORTH);
+        put(Facing.EAST_DOWN, Direction.NORTH, Direction.EAST);
+        put(Facing.SOUTH_DOWN, Direction.EAST, Direction.SOUTH);
+        put(Facing.WEST_DOWN, Direction.SOUTH, Direction.WEST);
+        put(Facing.NORTH_UP, Direction.WEST, Direction.SOUTH);
+        put(Facing.EAST_UP, Direction.NORTH, Direction.WEST);
+        put(Facing.SOUTH_UP, Direction.EAST, Direction.NORTH);
+        put(Facing.WEST_UP, Direction.SOUTH, Direction.EAST);
+    }
+
+    private static void put(Facing facing, Direction x, Direction y) {
+        EXTENSIONS[facing.ordinal()] = new ExtensionDirection(x, y);
     }
 
     public static ExtensionDirection get(Facing facing) {
-        return EXTENSIONS.get(facing);
+        return EXTENSIONS[facing.ordinal()];
     }
 }
@@ -1,6 +1,7 @@
 package uk.me.msb.cinemashow.block;
 
 import net.minecraft.core.Direction;
+import net.minecraft.util.Mth;
 import net.minecraft.util.StringRepresentable;
 import net.minecraft.world.entity.Entity;
 
@@ -25,6 +26,32 @@ public enum Facing implements StringRepresentable {
     SOUTH_UP(Direction.SOUTH, Direction.UP),
     WEST_UP(Direction.WEST, Direction.UP);
 
+    /**
+     * Degrees to radians.
+     */
+    private static final float DEG_TO_RAD = (float) Math.PI / 180F;
+
+    /**
+     * The `Facing` values indexed on the horizontal direction's 2D data value and the vertical direction's index
+     * (see `verticalIndex()`).
+     */
+    private static final Facing[][] FACINGS = new Facing[4][3];
+
+    /**
+     * The opposite of each `Facing` indexed on it's ordinal.
+     */
+    private static final Facing[] OPPOSITES = new Facing[values().length];
+
+    static {
+        for (Facing facing: values()) {
+            FACINGS[facing.horizontal.get2DDataValue()][verticalIndex(facing.vertical)] = facing;
+        }
+        for (Facing facing: values()) {
+            Direction vertical = facing.vertical == null ? null : facing.vertical.getOpposite();
+            OPPOSITES[facing.ordinal()] = getFacing(facing.horizontal.getOpposite(), vertical);
+        }
+    }
+
     /**
      * The horizontal `Direction` that an entity/block is facing.
      */
@@ -50,12 +77,30 @@ public enum Facing implements StringRepresentable {
         return this.name().toLowerCase();
     }
 
+    /**
+     * @return the `x` rotation (degrees) necessary for a block model with it's screen on the `NORTH` face to face
+     * this way
+     */
+    public int getRotationX() {
+        if (vertical == null) {
+            return 0;
+        }
+        return vertical == Direction.DOWN ? 90 : 270;
+    }
+
+    /**
+     * @return the `y` rotation (degrees) necessary for a block model with it's screen on the `NORTH` face to face
+     * this way
+     */
+    public int getRotationY() {
+        return (int) horizontal.getOpposite().toYRot();
+    }
+
     /**
      * @return the opposite facing to the enum's value (see `FacingTest` for expected behaviour).
      */
     public Facing getOpposite() {
-        Direction vertical = this.vertical == null ? null : this.vertical.getOpposite();
-        return Facing.getFacing(this.horizontal.getOpposite(), vertical);
+        return OPPOSITES[ordinal()];
     }
 
     /**
@@ -63,20 +108,53 @@ public enum Facing implements StringRepresentable {
      * @return a `Facing` value representing the direction the entity is facing.
      */
     public static Facing getFacingForEntity(Entity entity) {
-        final Direction[] facing = Direction.orderedByNearest(entity);
-        int index = 0;
+        return getFacingForRotation(entity.getViewXRot(1.0F), entity.getViewYRot(1.0F));
+    }
+
+    /**
+     * Gives the same result as taking the nearest direction (and the nearest horizontal direction if that is
+     * vertical) from `Direction.orderedByNearest()` but without allocating the ordered array.
+     *
+     * @param xRot an entity's pitch in degrees (positive is looking down)
+     * @param yRot an entity's yaw in degrees
+     * @return a `Facing` value representing the direction
+     */
+    static Facing getFacingForRotation(float xRot, float yRot) {
+        float pitch = xRot * DEG_TO_RAD;
+        float yaw = -yRot * DEG_TO_RAD;
+        float sinPitch = Mth.sin(pitch);
+        float sinYaw = Mth.sin(yaw);
+        float cosYaw = Mth.cos(yaw);
+        // as in `orderedByNearest()` a tie (e.g. at a yaw of exactly 45 degrees) goes to `NORTH` or `SOUTH`
+        boolean eastWest = Math.abs(sinYaw) > Math.abs(cosYaw);
+        Direction horizontal = eastWest
+            ? (sinYaw > 0 ? Direction.EAST : Direction.WEST)
+            : (cosYaw > 0 ? Direction.SOUTH : Direction.NORTH);
+        float horizontalLength = Mth.cos(pitch) * Math.max(Math.abs(sinYaw), Math.abs(cosYaw));
         Direction vertical = null;
-        if (facing[index] == Direction.DOWN || facing[index] == Direction.UP) {
-            vertical = facing[index];
-            // The 2nd array element will now give the horizontal facing.
-            index ++;
+        if (Math.abs(sinPitch) > horizontalLength) {
+            vertical = sinPitch < 0 ? Direction.UP : Direction.DOWN;
         }
-        return Facing.getFacing(facing[index], vertical);
+        return getFacing(horizontal, vertical);
     }
 
+    /**
+     * @param horizontal a horizontal direction
+     * @param vertical   a vertical direction (or null for facing toward the horizon)
+     * @return the matching `Facing` value
+     */
     private static Facing getFacing(Direction horizontal, Direction vertical) {
-        String horizontal_name = horizontal.name();
-        String name = vertical == null ? horizontal_name : String.format("%s_%s", horizontal_name, vertical.name());
-        return valueOf(name);
+        return FACINGS[horizontal.get2DDataValue()][verticalIndex(vertical)];
+    }
+
+    /**
+     * @param vertical a vertical direction (or null)
+     * @return the index of the direction in the second dimension of `FACINGS`
+     */
+    private static int verticalIndex(Direction vertical) {
+        if (vertical == null) {
+            return 0;
+        }
+        return vertical == Direction.DOWN ? 1 : 2;
     }
 }
@@ -2,25 +2,32 @@ package uk.me.msb.cinemashow.block;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.EnumProperty;
-import net.minecraft.world.level.block.state.properties.IntegerProperty;
 import net.minecraft.world.level.material.Material;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.me.msb.cinemashow.ShowProperties;
-import uk.me.msb.cinemashow.setup.Registration;
-
-import java.util.Objects;
 
+import javax.annotation.Nullable;
 /**
- * Class implementing the screen block. The only customisation here is how the state of a newly placed block is set.
+ * Class implementing the screen block. The only customisations here are how a newly placed block's facing and tile
+ * position are set and keeping the level's `ScreenIndex` up to date. The tile position is held by the block's
+ * `ScreenBlockEntity` so a show's block has a state for each `Facing` however large the show is.
  */
-public class ScreenBlock extends Block {
+public class ScreenBlock extends Block implements EntityBlock {
 
     public static final Logger LOGGER = LogManager.getLogger();
 
@@ -28,90 +35,234 @@ public class ScreenBlock extends Block {
      * State property indicating the direction the tile is facing
      */
     public static final EnumProperty<Facing> FACING = EnumProperty.create("facing", Facing.class);
+
+    /**
+     * `Direction.values()` copies the array on each call.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The metadata of the show the block displays.
+     */
+    private final ShowProperties props;
+
     /**
-     * State property indicating the show tile x position
+     * The facing and tile position of a block being placed. A thread reuses the same instance for every block it
+     * places so finding a placement doesn't allocate.
      */
-    public static final IntegerProperty SCREEN_X = IntegerProperty.create("x", 0, ShowProperties.BLOCKS_X_MAX - 1);
+    private static class Placement {
+
+        /**
+         * The position of the adjoining block being checked.
+         */
+        final BlockPos.MutableBlockPos adjoiningPos = new BlockPos.MutableBlockPos();
+
+        /**
+         * The block being placed (null once it has been placed).
+         */
+        @Nullable
+        ScreenBlock block;
+
+        /**
+         * The position of the block being placed (see `BlockPos.asLong()`).
+         */
+        long pos;
+
+        Facing facing;
+
+        int x;
+
+        int y;
+    }
+
     /**
-     * State property indicating the show tile y position
+     * The placement found by `getStateForPlacement()` for the block being placed on this thread (kept for
+     * `setPlacedBy()`, a per thread value as the client and server threads of a single player game both place blocks).
      */
-    public static final IntegerProperty SCREEN_Y = IntegerProperty.create("y", 0, ShowProperties.BLOCKS_Y_MAX - 1);
+    private static final ThreadLocal<Placement> PLACING = ThreadLocal.withInitial(Placement::new);
 
-    public ScreenBlock() {
+    public ScreenBlock(ShowProperties props) {
+        // a solid full cube that occludes it's neighbours' faces (the screen models cull the faces shared by the blocks
+        // of a screen)
         super(BlockBehaviour.Properties.of(Material.DIRT));
+        this.props = props;
+    }
+
+    public ShowProperties getShowProperties() {
+        return props;
+    }
+
+    /**
+     * @return the block entity holding the block's tile position (drawn by `ScreenRenderer` if the show is streamed)
+     */
+    @Override
+    public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
+        return new ScreenBlockEntity(pos, state);
+    }
+
+    /**
+     * Records the block's new facing in the level's `ScreenIndex` (a new block is recorded by it's block entity).
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, level, pos, oldState, isMoving);
+        if (level instanceof ServerLevel serverLevel && oldState.is(this) && state != oldState
+                && level.getBlockEntity(pos) instanceof ScreenBlockEntity entity) {
+            entity.indexTile(serverLevel);
+        }
+    }
+
+    /**
+     * Removes the block from the level's `ScreenIndex` (unless only it's state is changing).
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean isMoving) {
+        if (level instanceof ServerLevel serverLevel && !newState.is(this)) {
+            ScreenIndex.get(serverLevel).remove(pos);
+        }
+        super.onRemove(state, level, pos, newState, isMoving);
     }
 
-    
     /** 
-     * The new `FACING`, `SCREEN_X`, and `SCREEN_Y` properties are registered here.
+     * The new `FACING` property is registered here.
      * 
      * @param builder for registering new state properties
      */
     @Override
     protected void createBlockStateDefinition(StateDefinition.Builder<Block, BlockState> builder) {
         super.createBlockStateDefinition(builder);
-        builder.add(FACING, SCREEN_X, SCREEN_Y);
+        builder.add(FACING);
     }
 
-    
-    /** 
-     * Called to create the state for a screen block to be placed. Matching adjoining blocks are tested for and the
-     * state is set accordingly allowing the player to use one screen block to simply build a whole show (see README).
-     * Note that the Y direction of the show (downwards) is opposite to the Y direction in which a screen is built up.
-     * 
+    /**
+     * Called to create the state for a screen block to be placed (see `findPlacement()`).
+     *
      * @param context context for block placement
      * @return the state for the newly placed screen block
      */
     @Override
     public BlockState getStateForPlacement(BlockPlaceContext context) {
-        final BlockState bs = Objects.requireNonNull(super.getStateForPlacement(context));
+        Level level = context.getLevel();
+        return getStateForPlacement(level, getScreenIndex(level), context.getClickedPos(), context.getPlayer());
+    }
 
-        BlockPos clickedPos = context.getClickedPos();
-        Facing facing = Facing.getFacingForEntity(context.getPlayer());
+    /**
+     * Creates the state for a screen block to be placed. The placement is kept for `setPlacedBy()`.
+     *
+     * @param level      the level the block is placed in
+     * @param index      the level's `ScreenIndex` (null on the client)
+     * @param clickedPos the position of the block being placed
+     * @param placer     the entity placing the block
+     * @return the state for the newly placed screen block
+     */
+    BlockState getStateForPlacement(
+        BlockGetter level, @Nullable ScreenIndex index, BlockPos clickedPos, @Nullable Entity placer
+    ) {
+        Placement placement = PLACING.get();
+        findPlacement(level, index, clickedPos, placer, placement);
+        placement.block = this;
+        placement.pos = clickedPos.asLong();
+        return defaultBlockState().setValue(FACING, placement.facing);
+    }
 
-        ShowProperties props = Registration.SHOW_PROPERTIES.get(getBlockName(this));
+    /**
+     * Sets the placed block's tile position (found by `getStateForPlacement()`).
+     */
+    @Override
+    public void setPlacedBy(
+        Level level, BlockPos pos, BlockState state, @Nullable LivingEntity placer, ItemStack stack
+    ) {
+        super.setPlacedBy(level, pos, state, placer, stack);
+        Placement placement = PLACING.get();
+        if (level.getBlockEntity(pos) instanceof ScreenBlockEntity entity) {
+            if (placement.block != this || placement.pos != pos.asLong()) {
+                // placed without `getStateForPlacement()`
+                findPlacement(level, getScreenIndex(level), pos, placer, placement);
+            }
+            entity.setTile(placement.x, placement.y);
+        }
+        placement.block = null;
+    }
+
+    /**
+     * @return the level's `ScreenIndex` on the server (null on the client)
+     */
+    @Nullable
+    private static ScreenIndex getScreenIndex(Level level) {
+        return level instanceof ServerLevel serverLevel ? ScreenIndex.get(serverLevel) : null;
+    }
 
+    /**
+     * Matching adjoining blocks are tested for and the placement is set accordingly allowing the player to use one
+     * screen block to simply build a whole show (see README). Note that the Y direction of the show (downwards) is
+     * opposite to the Y direction in which a screen is built up. On the server the adjoining tiles are looked up in
+     * the level's `ScreenIndex`, the client (predicting the placement) reads the adjoining block entities.
+     *
+     * @param level      the level the block is placed in
+     * @param index      the level's `ScreenIndex` (null on the client)
+     * @param clickedPos the position of the block being placed
+     * @param placer     the entity placing the block
+     * @param placement  receives the block's facing and tile position
+     */
+    private void findPlacement(
+        BlockGetter level, @Nullable ScreenIndex index, BlockPos clickedPos, @Nullable Entity placer,
+        Placement placement
+    ) {
         // check in each direction for a matching screen block
-        for (Direction direction: Direction.values()) {
-            BlockState adjoiningState = context.getLevel().getBlockState(clickedPos.relative(direction.getOpposite()));
-            if (getBlockName(adjoiningState.getBlock()).equals(props.getBlockName())) {
-                // a show match was found so check if `direction` qualifies as a valid direction to extend the screen
-                // (up and right, relatively).
-                Facing adjoiningFacing = adjoiningState.getValue(FACING);
-                int adjoiningX = adjoiningState.getValue(SCREEN_X);
-                int adjoiningY = adjoiningState.getValue(SCREEN_Y);
-                ExtensionDirection extension = ExtensionDirection.get(adjoiningFacing);
-                if (direction == extension.x() || direction == extension.y()) {
-                    // `direction` is a valid extension direction so create new screen block state with a matching
-                    // `Facing` and the new calculated tile position extending from the existing block.
-                    int x = adjoiningX + (direction == extension.x() ? 1 : 0);
-                    int y = adjoiningY + (direction == extension.y() ? -1 : 0);
-                    // check that the new show block lies within the bounds of the screen
-                    if (x < props.getBlocksX() && y >= 0) {
-                        return bs.setValue(FACING, adjoiningFacing).setValue(SCREEN_X, x).setValue(SCREEN_Y, y);
-                    }
+        BlockPos.MutableBlockPos adjoiningPos = placement.adjoiningPos;
+        for (Direction direction: DIRECTIONS) {
+            adjoiningPos.setWithOffset(clickedPos, direction.getOpposite());
+            final Facing adjoiningFacing;
+            final int adjoiningX;
+            final int adjoiningY;
+            if (index != null) {
+                ScreenIndex.Tile tile = index.getTile(adjoiningPos);
+                if (tile == null || tile.screen().getShowProperties() != props) {
+                    continue;
+                }
+                adjoiningFacing = tile.screen().getId().facing();
+                adjoiningX = tile.x();
+                adjoiningY = tile.y();
+            } else {
+                BlockState adjoiningState = level.getBlockState(adjoiningPos);
+                // each show has a single block instance
+                if (!adjoiningState.is(this)
+                        || !(level.getBlockEntity(adjoiningPos) instanceof ScreenBlockEntity entity)) {
+                    continue;
+                }
+                adjoiningFacing = adjoiningState.getValue(FACING);
+                adjoiningX = entity.getTileX();
+                adjoiningY = entity.getTileY();
+            }
+            // a show match was found so check if `direction` qualifies as a valid direction to extend the screen
+            // (up and right, relatively).
+            ExtensionDirection extension = ExtensionDirection.get(adjoiningFacing);
+            if (direction == extension.x() || direction == extension.y()) {
+                // `direction` is a valid extension direction so create new screen block placement with a matching
+                // `Facing` and the new calculated tile position extending from the existing block.
+                int x = adjoiningX + (direction == extension.x() ? 1 : 0);
+                int y = adjoiningY + (direction == extension.y() ? -1 : 0);
+                // check that the new show block lies within the bounds of the screen
+                if (x < props.getBlocksX() && y >= 0) {
+                    placement.facing = adjoiningFacing;
+                    placement.x = x;
+                    placement.y = y;
+                    return;
                 }
             }
         }
 
         // No qualifying adjoining screen block was found to extend from or the placed block was outside the bounds of
-        // the show. Therefore create state for a bottom left tile of the show with the screen facing the player.
+        // the show. Therefore create a bottom left tile of the show with the screen facing the player.
 
-        LOGGER.debug(String.format("Player facing: %s", facing));
-
-        return bs.setValue(FACING, facing.getOpposite())
-                .setValue(SCREEN_X, 0)
-                .setValue(SCREEN_Y, props.getBlocksY() - 1);
-    }
+        // (a block placed by a dispenser, etc has no placer)
+        Facing facing = placer == null ? Facing.SOUTH : Facing.getFacingForEntity(placer);
+        LOGGER.debug("Player facing: {}", facing);
 
-    /**
-     * TODO is there a cleaner way to get this?
-     * 
-     * @param block a block object
-     * @return the block's name (show slug)
-     */
-    private static String getBlockName(Block block) {
-        String id = block.getDescriptionId();
-        return id.substring(id.lastIndexOf(".") + 1);
+        placement.facing = facing.getOpposite();
+        placement.x = 0;
+        placement.y = props.getBlocksY() - 1;
     }
 }
@@ -0,0 +1,201 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.client.model.data.ModelData;
+import net.minecraftforge.client.model.data.ModelProperty;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.setup.Registration;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The block entity of a screen block. It holds the block's tile position in the show (rather than block state
+ * properties so that the number of states doesn't depend on the size of the show). The position is passed to the
+ * block's model as model data and, for a streamed show, used by `ScreenRenderer` to draw the block's part of
+ * the show's current frame.
+ */
+public class ScreenBlockEntity extends BlockEntity {
+
+    /**
+     * The model data property holding the tile's x position.
+     */
+    public static final ModelProperty<Integer> TILE_X = new ModelProperty<>();
+
+    /**
+     * The model data property holding the tile's y position.
+     */
+    public static final ModelProperty<Integer> TILE_Y = new ModelProperty<>();
+
+    /**
+     * The tags the tile position is saved under (`x`, `y` and `z` hold the block's position in a saved block entity).
+     */
+    static final String TAG_TILE_X = "tileX";
+
+    static final String TAG_TILE_Y = "tileY";
+
+    /**
+     * The show tile x position.
+     */
+    private int tileX;
+
+    /**
+     * The show tile y position.
+     */
+    private int tileY;
+
+    public ScreenBlockEntity(BlockPos pos, BlockState state) {
+        super(
+            getShowProperties(state).isStreamed()
+                ? Registration.DRAWN_SCREEN_BLOCK_ENTITY.get() : Registration.SCREEN_BLOCK_ENTITY.get(),
+            pos, state
+        );
+        // the bottom left tile until placed
+        this.tileX = 0;
+        this.tileY = getShowProperties(state).getBlocksY() - 1;
+    }
+
+    private static ShowProperties getShowProperties(BlockState state) {
+        return ((ScreenBlock) state.getBlock()).getShowProperties();
+    }
+
+    public int getTileX() {
+        return tileX;
+    }
+
+    public int getTileY() {
+        return tileY;
+    }
+
+    /**
+     * Sets the block's tile position (recording it in the level's `ScreenIndex` and sending it to the clients on the
+     * server).
+     *
+     * @param x the tile's x position in the show
+     * @param y the tile's y position in the show
+     */
+    public void setTile(int x, int y) {
+        tileX = x;
+        tileY = y;
+        setChanged();
+        if (level instanceof ServerLevel serverLevel) {
+            indexTile(serverLevel);
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_CLIENTS);
+        } else if (level != null) {
+            tileChanged();
+        }
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            indexTile(serverLevel);
+        } else if (level != null) {
+            indexClientTile();
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (level != null && level.isClientSide()) {
+            ScreenIndex.CLIENT.remove(worldPosition);
+        }
+    }
+
+    /**
+     * Records the block's tile in the level's `ScreenIndex`.
+     */
+    void indexTile(ServerLevel level) {
+        indexTile(ScreenIndex.get(level));
+    }
+
+    void indexTile(ScreenIndex index) {
+        BlockState state = getBlockState();
+        index.put(worldPosition, getShowProperties(state), state.getValue(ScreenBlock.FACING), tileX, tileY);
+    }
+
+    /**
+     * Records a baked show's tile in `ScreenIndex.CLIENT` (on the client) so that the show is animated while the screen
+     * is in view (a streamed show's screen blocks are drawn by `ScreenRenderer`, which advances the show).
+     */
+    private void indexClientTile() {
+        if (!getShowProperties(getBlockState()).isStreamed()) {
+            indexTile(ScreenIndex.CLIENT);
+        }
+    }
+
+    /**
+     * Re-renders the block with the new tile position (on the client).
+     */
+    private void tileChanged() {
+        indexClientTile();
+        requestModelDataUpdate();
+        if (level != null) {
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_IMMEDIATE);
+        }
+    }
+
+    /**
+     * Writes a tile position to a block entity's tag.
+     *
+     * @param tag the block entity's tag
+     * @param x   the tile's x position in the show
+     * @param y   the tile's y position in the show
+     */
+    static void saveTile(CompoundTag tag, int x, int y) {
+        tag.putInt(TAG_TILE_X, x);
+        tag.putInt(TAG_TILE_Y, y);
+    }
+
+    @Override
+    public void load(@Nonnull CompoundTag tag) {
+        super.load(tag);
+        tileX = tag.getInt(TAG_TILE_X);
+        tileY = tag.getInt(TAG_TILE_Y);
+    }
+
+    @Override
+    protected void saveAdditional(@Nonnull CompoundTag tag) {
+        super.saveAdditional(tag);
+        saveTile(tag, tileX, tileY);
+    }
+
+    @Nonnull
+    @Override
+    public CompoundTag getUpdateTag() {
+        return saveWithoutMetadata();
+    }
+
+    @Override
+    public ClientboundBlockEntityDataPacket getUpdatePacket() {
+        return ClientboundBlockEntityDataPacket.create(this);
+    }
+
+    @Override
+    public void handleUpdateTag(CompoundTag tag) {
+        load(tag);
+        tileChanged();
+    }
+
+    @Override
+    public void onDataPacket(Connection connection, ClientboundBlockEntityDataPacket packet) {
+        CompoundTag tag = packet.getTag();
+        if (tag != null) {
+            handleUpdateTag(tag);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public ModelData getModelData() {
+        return ModelData.builder().with(TILE_X, tileX).with(TILE_Y, tileY).build();
+    }
+}
@@ -0,0 +1,380 @@
+package uk.me.msb.cinemashow.block;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.phys.AABB;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.setup.Registration;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+
+import static uk.me.msb.cinemashow.CinemaShow.MODID;
+
+/**
+ * An index of the screens built in a (server) level, saved with the level. A screen is identified by it's show, it's
+ * `Facing` and the position of it's bottom left tile (the origin, which needn't have been placed) so every screen block
+ * belongs to exactly one screen. The tiles are partitioned by chunk so that the tile at a position and the screens in
+ * an area are found without reading any block states.
+ * <p>
+ * The index is kept up to date as screen blocks are placed and removed. As blocks can also change without this (e.g.
+ * structures or external editors) the tiles of each chunk are reconciled with the chunk's blocks when it is loaded.
+ */
+public class ScreenIndex extends SavedData {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The name the index is saved under in the level's data folder.
+     */
+    public static final String DATA_NAME = String.format("%s_screens", MODID);
+
+    /**
+     * The baked shows' screens in the client's level (kept up to date by the screen blocks' entities on the client and
+     * only accessed on the client thread), so the client finds which shows are in view a screen at a time rather than a
+     * block at a time (see `ShowTicker`). It's never saved.
+     */
+    public static final ScreenIndex CLIENT = new ScreenIndex();
+
+    /**
+     * Identifies a screen.
+     *
+     * @param blockName the show's screen block name
+     * @param origin    the position of the bottom left tile (x 0, y `blocksY - 1`)
+     * @param facing    the direction the screen is facing
+     */
+    public record ScreenId(String blockName, BlockPos origin, Facing facing) {
+    }
+
+    /**
+     * A tile of a screen.
+     *
+     * @param screen the screen
+     * @param x      the tile's x position in the show
+     * @param y      the tile's y position in the show
+     */
+    public record Tile(Screen screen, int x, int y) {
+    }
+
+    /**
+     * A screen and the tiles of it that have been placed.
+     */
+    public static class Screen {
+
+        private final ScreenId id;
+
+        private final ShowProperties props;
+
+        /**
+         * The placed tiles indexed on `y * blocksX + x`.
+         */
+        private final BitSet tiles;
+
+        /**
+         * The box enclosing every tile of the screen (whether placed or not).
+         */
+        private final AABB bounds;
+
+        private Screen(ScreenId id, ShowProperties props, BitSet tiles) {
+            this.id = id;
+            this.props = props;
+            this.tiles = tiles;
+            this.bounds = AABB.of(BoundingBox.fromCorners(id.origin(), getTilePos(props.getBlocksX() - 1, 0)));
+        }
+
+        public ScreenId getId() {
+            return id;
+        }
+
+        public ShowProperties getShowProperties() {
+            return props;
+        }
+
+        public boolean hasTile(int x, int y) {
+            return tiles.get(y * props.getBlocksX() + x);
+        }
+
+        public AABB getBounds() {
+            return bounds;
+        }
+
+        public int getTileCount() {
+            return tiles.cardinality();
+        }
+
+        /**
+         * @return whether every tile of the show has been placed
+         */
+        public boolean isComplete() {
+            return getTileCount() == props.getBlocksX() * props.getBlocksY();
+        }
+
+        /**
+         * @param x a tile's x position in the show
+         * @param y a tile's y position in the show
+         * @return the tile's position in the level
+         */
+        public BlockPos getTilePos(int x, int y) {
+            ExtensionDirection extension = ExtensionDirection.get(id.facing());
+            return id.origin().relative(extension.x(), x).relative(extension.y(), props.getBlocksY() - 1 - y);
+        }
+    }
+
+    /**
+     * The screens keyed on their id.
+     */
+    private final Map<ScreenId, Screen> screens = new HashMap<>();
+
+    /**
+     * The tiles keyed on their position, partitioned on `ChunkPos.toLong()` (a primitive keyed map so a lookup doesn't
+     * box the key).
+     */
+    private final Long2ObjectMap<Map<BlockPos, Tile>> chunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * @param level a server level
+     * @return the level's index (loaded or created on first use)
+     */
+    public static ScreenIndex get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(ScreenIndex::load, ScreenIndex::new, DATA_NAME);
+    }
+
+    /**
+     * @param pos a position
+     * @return the screen tile at the position (or null if there isn't one)
+     */
+    @Nullable
+    public Tile getTile(BlockPos pos) {
+        Map<BlockPos, Tile> tiles = chunks.get(ChunkPos.asLong(pos));
+        return tiles == null ? null : tiles.get(pos);
+    }
+
+    /**
+     * @return all the screens
+     */
+    public Collection<Screen> getScreens() {
+        return Collections.unmodifiableCollection(screens.values());
+    }
+
+    /**
+     * @param area an area of the level
+     * @return the screens with a tile in the area
+     */
+    public Set<Screen> getScreens(BoundingBox area) {
+        Set<Screen> found = new LinkedHashSet<>();
+        for (int chunkX = area.minX() >> 4; chunkX <= area.maxX() >> 4; chunkX ++) {
+            for (int chunkZ = area.minZ() >> 4; chunkZ <= area.maxZ() >> 4; chunkZ ++) {
+                Map<BlockPos, Tile> tiles = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (tiles == null) {
+                    continue;
+                }
+                for (Map.Entry<BlockPos, Tile> tile: tiles.entrySet()) {
+                    if (area.isInside(tile.getKey())) {
+                        found.add(tile.getValue().screen());
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Records a screen block (replacing any tile already at the position). Blocks outside the bounds of the show (its
+     * size may have changed since it was placed) aren't part of a screen.
+     *
+     * @param pos    the block's position
+     * @param props  the show's metadata
+     * @param facing the direction the block is facing
+     * @param x      the tile's x position in the show
+     * @param y      the tile's y position in the show
+     */
+    public void put(BlockPos pos, ShowProperties props, Facing facing, int x, int y) {
+        Tile current = getTile(pos);
+        if (current != null && current.screen().getShowProperties() == props
+                && current.screen().getId().facing() == facing && current.x() == x && current.y() == y) {
+            return;
+        }
+        remove(pos);
+        if (x >= props.getBlocksX() || y >= props.getBlocksY()) {
+            return;
+        }
+        ExtensionDirection extension = ExtensionDirection.get(facing);
+        BlockPos origin = pos.relative(extension.x(), -x).relative(extension.y(), y - (props.getBlocksY() - 1));
+        ScreenId id = new ScreenId(props.getBlockName(), origin.immutable(), facing);
+        Screen screen = screens.computeIfAbsent(id, key -> new Screen(key, props, new BitSet()));
+        screen.tiles.set(y * props.getBlocksX() + x);
+        addTile(pos.immutable(), new Tile(screen, x, y));
+        setDirty();
+    }
+
+    private void addTile(BlockPos pos, Tile tile) {
+        long chunk = ChunkPos.asLong(pos);
+        Map<BlockPos, Tile> tiles = chunks.get(chunk);
+        if (tiles == null) {
+            tiles = new HashMap<>();
+            chunks.put(chunk, tiles);
+        }
+        tiles.put(pos, tile);
+    }
+
+    /**
+     * Records that a screen block has been removed.
+     *
+     * @param pos the block's position
+     */
+    public void remove(BlockPos pos) {
+        long chunk = ChunkPos.asLong(pos);
+        Map<BlockPos, Tile> tiles = chunks.get(chunk);
+        Tile tile = tiles == null ? null : tiles.remove(pos);
+        if (tile == null) {
+            return;
+        }
+        if (tiles.isEmpty()) {
+            chunks.remove(chunk);
+        }
+        Screen screen = tile.screen();
+        screen.tiles.clear(tile.y() * screen.getShowProperties().getBlocksX() + tile.x());
+        if (screen.tiles.isEmpty()) {
+            screens.remove(screen.getId());
+        }
+        setDirty();
+    }
+
+    /**
+     * Forgets every screen (e.g. as the client's level is unloaded).
+     */
+    public void clear() {
+        screens.clear();
+        chunks.clear();
+        setDirty();
+    }
+
+    /**
+     * Makes the tiles in a loaded chunk match the chunk's screen blocks.
+     *
+     * @param chunk the loaded chunk
+     */
+    public void reconcile(LevelChunk chunk) {
+        int removed = 0;
+        int added = 0;
+        Map<BlockPos, BlockEntity> blockEntities = chunk.getBlockEntities();
+        Map<BlockPos, Tile> tiles = chunks.get(chunk.getPos().toLong());
+        if (tiles != null) {
+            List<BlockPos> stale = new ArrayList<>();
+            for (Map.Entry<BlockPos, Tile> entry: tiles.entrySet()) {
+                if (!matches(entry.getValue(), blockEntities.get(entry.getKey()))) {
+                    stale.add(entry.getKey());
+                }
+            }
+            stale.forEach(this::remove);
+            removed = stale.size();
+        }
+
+        // the tile positions are held by the screen blocks' entities so the chunk's blocks needn't be read
+        for (BlockEntity blockEntity: blockEntities.values()) {
+            if (blockEntity instanceof ScreenBlockEntity entity) {
+                Tile tile = getTile(entity.getBlockPos());
+                if (tile == null || !matches(tile, entity)) {
+                    entity.indexTile(this);
+                    added ++;
+                }
+            }
+        }
+        if (removed > 0 || added > 0) {
+            LOGGER.debug("Reconciled screens in chunk {}: {} tiles removed, {} added", chunk.getPos(), removed, added);
+        }
+    }
+
+    /**
+     * @param tile        an indexed tile
+     * @param blockEntity the block entity at the tile's position
+     * @return whether the block is the tile
+     */
+    private static boolean matches(Tile tile, @Nullable BlockEntity blockEntity) {
+        if (!(blockEntity instanceof ScreenBlockEntity entity)) {
+            return false;
+        }
+        BlockState state = entity.getBlockState();
+        return state.getBlock() instanceof ScreenBlock block
+            && block.getShowProperties() == tile.screen().getShowProperties()
+            && state.getValue(ScreenBlock.FACING) == tile.screen().getId().facing()
+            && entity.getTileX() == tile.x()
+            && entity.getTileY() == tile.y();
+    }
+
+    @Nonnull
+    @Override
+    public CompoundTag save(@Nonnull CompoundTag tag) {
+        ListTag screensTag = new ListTag();
+        for (Screen screen: screens.values()) {
+            CompoundTag screenTag = new CompoundTag();
+            screenTag.putString("show", screen.getId().blockName());
+            screenTag.putLong("origin", screen.getId().origin().asLong());
+            screenTag.putInt("blocksX", screen.getShowProperties().getBlocksX());
+            screenTag.putInt("blocksY", screen.getShowProperties().getBlocksY());
+            screenTag.putString("facing", screen.getId().facing().name());
+            screenTag.putLongArray("tiles", screen.tiles.toLongArray());
+            screensTag.add(screenTag);
+        }
+        tag.put("screens", screensTag);
+        return tag;
+    }
+
+    private static ScreenIndex load(CompoundTag tag) {
+        return load(tag, Registration::getShowProperties);
+    }
+
+    /**
+     * Reads an index saved by `save()`. The screens of shows that no longer exist or have changed size are dropped
+     * (any of their blocks are indexed again when their chunk is loaded).
+     *
+     * @param tag        the saved index
+     * @param showLookup finds a show's metadata from it's block name
+     * @return the index
+     */
+    static ScreenIndex load(CompoundTag tag, Function<String, ShowProperties> showLookup) {
+        ScreenIndex index = new ScreenIndex();
+        ListTag screensTag = tag.getList("screens", Tag.TAG_COMPOUND);
+        for (int i = 0; i < screensTag.size(); i ++) {
+            CompoundTag screenTag = screensTag.getCompound(i);
+            ShowProperties props = showLookup.apply(screenTag.getString("show"));
+            if (props == null) {
+                LOGGER.warn("Dropping screens of unknown show: {}", screenTag.getString("show"));
+                continue;
+            }
+            if (screenTag.getInt("blocksX") != props.getBlocksX()
+                    || screenTag.getInt("blocksY") != props.getBlocksY()) {
+                continue;
+            }
+            ScreenId id = new ScreenId(
+                props.getBlockName(), BlockPos.of(screenTag.getLong("origin")),
+                Facing.valueOf(screenTag.getString("facing"))
+            );
+            Screen screen = new Screen(id, props, BitSet.valueOf(screenTag.getLongArray("tiles")));
+            for (int t = screen.tiles.nextSetBit(0); t >= 0; t = screen.tiles.nextSetBit(t + 1)) {
+                int x = t % props.getBlocksX();
+                int y = t / props.getBlocksX();
+                index.addTile(screen.getTilePos(x, y), new Tile(screen, x, y));
+            }
+            if (!screen.tiles.isEmpty()) {
+                index.screens.put(id, screen);
+            }
+        }
+        return index;
+    }
+}
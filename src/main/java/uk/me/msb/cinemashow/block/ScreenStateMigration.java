@@ -0,0 +1,210 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.setup.Registration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Moves the tile positions of screen blocks saved before the positions were held by `ScreenBlockEntity` (as the `x`
+ * and `y` block state properties) into the blocks' entities. The old properties are dropped when a chunk's block
+ * states are read so they are found in the chunk's saved data instead: each section's block state palette is searched
+ * for screen block states with the properties and the section's packed palette indexes are read to find the blocks
+ * using them. A block entity tag holding the tile position is then added to the chunk (or merged into the block's
+ * saved block entity tag) before the chunk's block entities are created.
+ */
+public class ScreenStateMigration {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The names of the removed tile position block state properties.
+     */
+    private static final String OLD_X = "x";
+
+    private static final String OLD_Y = "y";
+
+    /**
+     * The number of blocks in a chunk section.
+     */
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    /**
+     * The minimum number of bits per block of a section's packed palette indexes.
+     */
+    private static final int MIN_BITS = 4;
+
+    /**
+     * A screen block state with a tile position.
+     *
+     * @param blockEntityId the id of the screen block's entity type
+     * @param x             the tile's x position in the show
+     * @param y             the tile's y position in the show
+     */
+    private record OldTile(String blockEntityId, int x, int y) {
+    }
+
+    /**
+     * Migrates the tile positions of a chunk's screen blocks (from the old block state properties).
+     *
+     * @param chunk the chunk being loaded
+     * @param data  the chunk's saved data
+     * @return the number of screen blocks migrated
+     */
+    public static int migrate(ChunkAccess chunk, CompoundTag data) {
+        int migrated = migrate(chunk.getPos(), data, ScreenStateMigration::getBlockEntityId, chunk::setBlockEntityNbt);
+        if (migrated > 0) {
+            chunk.setUnsaved(true);
+            LOGGER.info("Migrated {} screen blocks in chunk {}", migrated, chunk.getPos());
+        }
+        return migrated;
+    }
+
+    /**
+     * Migrates the tile positions of the screen blocks in a chunk's saved data.
+     *
+     * @param chunkPos       the chunk's position
+     * @param data           the chunk's saved data
+     * @param blockEntityIds gives the id of a screen block's entity type from the block's name (null if it isn't a
+     *                       screen block)
+     * @param blockEntities  receives the block entity tags added to the chunk
+     * @return the number of screen blocks migrated
+     */
+    static int migrate(
+        ChunkPos chunkPos, CompoundTag data, Function<ResourceLocation, String> blockEntityIds,
+        Consumer<CompoundTag> blockEntities
+    ) {
+        Map<BlockPos, CompoundTag> blockEntityTags = null;
+        int migrated = 0;
+        ListTag sections = data.getList("sections", Tag.TAG_COMPOUND);
+        for (int s = 0; s < sections.size(); s ++) {
+            CompoundTag section = sections.getCompound(s);
+            CompoundTag blockStates = section.getCompound("block_states");
+            ListTag palette = blockStates.getList("palette", Tag.TAG_COMPOUND);
+            OldTile[] oldTiles = findOldTiles(palette, blockEntityIds);
+            if (oldTiles == null) {
+                continue;
+            }
+            int bits = palette.size() == 1 ? 0 : Math.max(MIN_BITS, Mth.ceillog2(palette.size()));
+            int perLong = bits == 0 ? 0 : Long.SIZE / bits;
+            long[] packed = blockStates.getLongArray("data");
+            if (bits != 0 && packed.length < (SECTION_SIZE + perLong - 1) / perLong) {
+                LOGGER.warn("Skipped migrating screens in a section of chunk {}: truncated data", chunkPos);
+                continue;
+            }
+            if (blockEntityTags == null) {
+                blockEntityTags = getBlockEntityTags(data);
+            }
+            int sectionY = section.getByte("Y");
+            for (int i = 0; i < SECTION_SIZE; i ++) {
+                int p = bits == 0 ? 0 : (int) (packed[i / perLong] >>> (i % perLong) * bits & (1L << bits) - 1);
+                if (p >= oldTiles.length || oldTiles[p] == null) {
+                    continue;
+                }
+                // the index is ordered y, z, x
+                BlockPos pos = chunkPos.getBlockAt(i & 15, sectionY * 16 + (i >> 8), i >> 4 & 15);
+                migrateTile(pos, oldTiles[p], blockEntityTags, blockEntities);
+                migrated ++;
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * @param name a block's name
+     * @return the id of the block's entity type if it's a screen block (otherwise null)
+     */
+    private static String getBlockEntityId(ResourceLocation name) {
+        if (!(ForgeRegistries.BLOCKS.getValue(name) instanceof ScreenBlock block)) {
+            return null;
+        }
+        // streamed shows have their own block entity type
+        BlockEntityType<ScreenBlockEntity> type = block.getShowProperties().isStreamed()
+            ? Registration.DRAWN_SCREEN_BLOCK_ENTITY.get() : Registration.SCREEN_BLOCK_ENTITY.get();
+        return String.valueOf(BlockEntityType.getKey(type));
+    }
+
+    /**
+     * @param palette        a section's block state palette
+     * @param blockEntityIds gives the id of a screen block's entity type from the block's name
+     * @return the screen block state with the old properties at each index of the palette (null if there aren't any)
+     */
+    private static OldTile[] findOldTiles(ListTag palette, Function<ResourceLocation, String> blockEntityIds) {
+        OldTile[] oldTiles = null;
+        for (int p = 0; p < palette.size(); p ++) {
+            CompoundTag entry = palette.getCompound(p);
+            CompoundTag properties = entry.getCompound("Properties");
+            if (!properties.contains(OLD_X, Tag.TAG_STRING) || !properties.contains(OLD_Y, Tag.TAG_STRING)) {
+                continue;
+            }
+            ResourceLocation name = ResourceLocation.tryParse(entry.getString("Name"));
+            String blockEntityId = name == null ? null : blockEntityIds.apply(name);
+            if (blockEntityId == null) {
+                continue;
+            }
+            try {
+                OldTile oldTile = new OldTile(
+                    blockEntityId, Integer.parseInt(properties.getString(OLD_X)), Integer.parseInt(properties.getString(OLD_Y))
+                );
+                if (oldTiles == null) {
+                    oldTiles = new OldTile[palette.size()];
+                }
+                oldTiles[p] = oldTile;
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Skipped migrating screen state with a bad tile position: {}", properties);
+            }
+        }
+        return oldTiles;
+    }
+
+    /**
+     * @param data a chunk's saved data
+     * @return the chunk's saved block entity tags keyed on position
+     */
+    private static Map<BlockPos, CompoundTag> getBlockEntityTags(CompoundTag data) {
+        Map<BlockPos, CompoundTag> tags = new HashMap<>();
+        ListTag blockEntities = data.getList("block_entities", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blockEntities.size(); i ++) {
+            CompoundTag tag = blockEntities.getCompound(i);
+            tags.put(BlockEntity.getPosFromTag(tag), tag);
+        }
+        return tags;
+    }
+
+    /**
+     * Sets the tile position in the block's saved block entity tag (the tags of the chunk's saved data are the ones its
+     * block entities are created from), otherwise adds a block entity tag to the chunk.
+     */
+    private static void migrateTile(
+        BlockPos pos, OldTile oldTile, Map<BlockPos, CompoundTag> blockEntityTags, Consumer<CompoundTag> blockEntities
+    ) {
+        CompoundTag tag = blockEntityTags.get(pos);
+        boolean added = tag == null;
+        if (added) {
+            tag = new CompoundTag();
+            tag.putInt("x", pos.getX());
+            tag.putInt("y", pos.getY());
+            tag.putInt("z", pos.getZ());
+        }
+        tag.putString("id", oldTile.blockEntityId());
+        ScreenBlockEntity.saveTile(tag, oldTile.x(), oldTile.y());
+        if (added) {
+            blockEntities.accept(tag);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package uk.me.msb.cinemashow.client;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.client.model.BakedModelWrapper;
+import net.minecraftforge.client.model.data.ModelData;
+import uk.me.msb.cinemashow.block.ScreenBlockEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * The baked model of a show's screen block for one `Facing`. The block's tile position is given as model data (see
+ * `ScreenBlockEntity`) and selects the tile's model. The wrapped (default) model is used without a tile position or
+ * when the position is outside the bounds of the show.
+ */
+public class ScreenBakedModel extends BakedModelWrapper<BakedModel> {
+
+    /**
+     * The tile models indexed on `y * blocksX + x`.
+     */
+    private final BakedModel[] tiles;
+
+    private final int blocksX;
+
+    private final int blocksY;
+
+    /**
+     * @param defaultModel the model used when there is no tile
+     * @param tiles        the tile models indexed on `y * blocksX + x`
+     * @param blocksX      the number of tiles along the x axis
+     * @param blocksY      the number of tiles along the y axis
+     */
+    public ScreenBakedModel(BakedModel defaultModel, BakedModel[] tiles, int blocksX, int blocksY) {
+        super(defaultModel);
+        this.tiles = tiles;
+        this.blocksX = blocksX;
+        this.blocksY = blocksY;
+    }
+
+    @Nonnull
+    @Override
+    public List<BakedQuad> getQuads(
+        @Nullable BlockState state, @Nullable Direction side, @Nonnull RandomSource rand, @Nonnull ModelData extraData,
+        @Nullable RenderType renderType
+    ) {
+        return getTile(extraData).getQuads(state, side, rand, extraData, renderType);
+    }
+
+    /**
+     * @param extraData the block's model data
+     * @return the model of the block's tile
+     */
+    private BakedModel getTile(ModelData extraData) {
+        Integer x = extraData.get(ScreenBlockEntity.TILE_X);
+        Integer y = extraData.get(ScreenBlockEntity.TILE_Y);
+        if (x == null || y == null || x < 0 || y < 0 || x >= blocksX || y >= blocksY) {
+            return originalModel;
+        }
+        return tiles[y * blocksX + x];
+    }
+}
@@ -0,0 +1,215 @@
+package uk.me.msb.cinemashow.client;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.BlockElement;
+import net.minecraft.client.renderer.block.model.BlockElementFace;
+import net.minecraft.client.renderer.block.model.BlockModel;
+import net.minecraft.client.renderer.block.model.FaceBakery;
+import net.minecraft.client.renderer.block.model.ItemOverrides;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.Material;
+import net.minecraft.client.resources.model.ModelBakery;
+import net.minecraft.client.resources.model.ModelState;
+import net.minecraft.client.resources.model.SimpleBakedModel;
+import net.minecraft.client.resources.model.UnbakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraftforge.client.model.geometry.IGeometryBakingContext;
+import net.minecraftforge.client.model.geometry.IGeometryLoader;
+import net.minecraftforge.client.model.geometry.IUnbakedGeometry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.setup.Registration;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static uk.me.msb.cinemashow.CinemaShow.MODID;
+
+/**
+ * Loads the model of a show's screen block (`"loader": "cinemashow:screen"`). The model names the show and a template
+ * model (a block model whose `#screen` texture is replaced by each tile's texture). Each tile's model is derived from
+ * the template while baking (rotated by the block state variant's rotation) into a `ScreenBakedModel` so a single
+ * model per `Facing` draws every tile of the show without a model resource per tile.
+ */
+public class ScreenModelLoader implements IGeometryLoader<ScreenModelLoader.Geometry> {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The loader's name (in the mod's namespace).
+     */
+    public static final String NAME = "screen";
+
+    /**
+     * The loader's id (as given in a model's `loader`).
+     */
+    public static final ResourceLocation ID = new ResourceLocation(MODID, NAME);
+
+    /**
+     * The model used for tiles outside the bounds of the show.
+     */
+    public static final ResourceLocation DEFAULT_MODEL = new ResourceLocation(MODID, "block/screen_base");
+
+    /**
+     * The template texture replaced by each tile's texture.
+     */
+    public static final String SCREEN_TEXTURE = "screen";
+
+    private static final FaceBakery FACE_BAKERY = new FaceBakery();
+
+    /**
+     * The number of screen models baked and the time taken since the last reset (see `logBakeTime()`).
+     */
+    private static final AtomicInteger BAKED = new AtomicInteger();
+
+    private static final AtomicLong BAKE_NANOS = new AtomicLong();
+
+    @Override
+    public Geometry read(JsonObject json, JsonDeserializationContext context) throws JsonParseException {
+        String show = GsonHelper.getAsString(json, "show");
+        ShowProperties props = Registration.getShowProperties(show);
+        if (props == null) {
+            throw new JsonParseException(String.format("Unknown show: %s", show));
+        }
+        return new Geometry(props, new ResourceLocation(GsonHelper.getAsString(json, "template")));
+    }
+
+    /**
+     * Logs (and resets) the number of screen models baked and the time taken, with the heap in use once baked (which
+     * includes garbage not yet collected, so it is only comparable between runs of the same shows).
+     */
+    public static void logBakeTime() {
+        Runtime runtime = Runtime.getRuntime();
+        LOGGER.info(
+            "Baked {} screen models in {} ms (heap used {} MB)", BAKED.getAndSet(0),
+            BAKE_NANOS.getAndSet(0) / 1_000_000, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024)
+        );
+    }
+
+    /**
+     * The unbaked model of a show's screen block.
+     */
+    public static class Geometry implements IUnbakedGeometry<Geometry> {
+
+        private final ShowProperties props;
+
+        /**
+         * The template model's location.
+         */
+        private final ResourceLocation template;
+
+        private Geometry(ShowProperties props, ResourceLocation template) {
+            this.props = props;
+            this.template = template;
+        }
+
+        /**
+         * @param x a tile's x position
+         * @param y a tile's y position
+         * @return the tile's texture (tile positions can share a texture)
+         */
+        private Material tileTexture(int x, int y) {
+            String texture = String.format("block/%s", props.getTileTexture(x, y));
+            return new Material(InventoryMenu.BLOCK_ATLAS, new ResourceLocation(MODID, texture));
+        }
+
+        /**
+         * @param modelGetter finds an unbaked model from it's location
+         * @return the template model
+         */
+        private BlockModel getTemplate(Function<ResourceLocation, UnbakedModel> modelGetter) {
+            if (modelGetter.apply(template) instanceof BlockModel blockModel) {
+                return blockModel;
+            }
+            throw new IllegalStateException(String.format("Screen template isn't a block model: %s", template));
+        }
+
+        @Override
+        public BakedModel bake(
+            IGeometryBakingContext context, ModelBakery bakery, Function<Material, TextureAtlasSprite> spriteGetter,
+            ModelState modelState, ItemOverrides overrides, ResourceLocation modelLocation
+        ) {
+            long start = System.nanoTime();
+            BlockModel templateModel = getTemplate(bakery::getModel);
+            BakedModel defaultModel = bakery.bake(DEFAULT_MODEL, modelState, spriteGetter);
+            BakedModel[] tiles = new BakedModel[props.getBlocksX() * props.getBlocksY()];
+            Map<Material, BakedModel> baked = new HashMap<>();
+            for (int y = 0; y < props.getBlocksY(); y ++) {
+                for (int x = 0; x < props.getBlocksX(); x ++) {
+                    tiles[y * props.getBlocksX() + x] = baked.computeIfAbsent(
+                        tileTexture(x, y),
+                        texture -> bakeTile(templateModel, spriteGetter.apply(texture), spriteGetter, modelState,
+                            overrides, modelLocation)
+                    );
+                }
+            }
+            BAKED.incrementAndGet();
+            BAKE_NANOS.addAndGet(System.nanoTime() - start);
+            return new ScreenBakedModel(defaultModel, tiles, props.getBlocksX(), props.getBlocksY());
+        }
+
+        /**
+         * Bakes the template's elements with the `#screen` texture replaced by a tile's texture (as
+         * `BlockModel.bake()` does).
+         *
+         * @param templateModel the template model
+         * @param tileSprite    the tile's texture
+         * @return the tile's model
+         */
+        private static BakedModel bakeTile(
+            BlockModel templateModel, TextureAtlasSprite tileSprite,
+            Function<Material, TextureAtlasSprite> spriteGetter, ModelState modelState, ItemOverrides overrides,
+            ResourceLocation modelLocation
+        ) {
+            SimpleBakedModel.Builder builder = new SimpleBakedModel.Builder(templateModel, overrides, false)
+                .particle(spriteGetter.apply(templateModel.getMaterial("particle")));
+            for (BlockElement element: templateModel.getElements()) {
+                for (Map.Entry<Direction, BlockElementFace> entry: element.faces.entrySet()) {
+                    BlockElementFace face = entry.getValue();
+                    TextureAtlasSprite sprite = face.texture.equals("#" + SCREEN_TEXTURE)
+                        ? tileSprite : spriteGetter.apply(templateModel.getMaterial(face.texture));
+                    BakedQuad quad = FACE_BAKERY.bakeQuad(
+                        element.from, element.to, face, sprite, entry.getKey(), modelState, element.rotation,
+                        element.shade, modelLocation
+                    );
+                    if (face.cullForDirection == null) {
+                        builder.addUnculledFace(quad);
+                    } else {
+                        builder.addCulledFace(
+                            Direction.rotate(modelState.getRotation().getMatrix(), face.cullForDirection), quad
+                        );
+                    }
+                }
+            }
+            return builder.build();
+        }
+
+        @Override
+        public Collection<Material> getMaterials(
+            IGeometryBakingContext context, Function<ResourceLocation, UnbakedModel> modelGetter,
+            Set<Pair<String, String>> missingTextureErrors
+        ) {
+            Set<Material> materials = new HashSet<>(
+                getTemplate(modelGetter).getMaterials(modelGetter, missingTextureErrors)
+            );
+            materials.addAll(modelGetter.apply(DEFAULT_MODEL).getMaterials(modelGetter, missingTextureErrors));
+            for (int y = 0; y < props.getBlocksY(); y ++) {
+                for (int x = 0; x < props.getBlocksX(); x ++) {
+                    materials.add(tileTexture(x, y));
+                }
+            }
+            return materials;
+        }
+    }
+}
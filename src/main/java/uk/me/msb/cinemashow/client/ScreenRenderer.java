@@ -0,0 +1,141 @@
+package uk.me.msb.cinemashow.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.math.Matrix3f;
+import com.mojang.math.Matrix4f;
+import com.mojang.math.Vector3f;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
+import net.minecraft.client.resources.model.BlockModelRotation;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.block.Facing;
+import uk.me.msb.cinemashow.block.ScreenBlock;
+import uk.me.msb.cinemashow.block.ScreenBlockEntity;
+import uk.me.msb.cinemashow.setup.ClientConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Draws a streamed show's screen blocks: the block's tile of the show's current frame (see `ShowTicker`) is
+ * drawn just in front of the block's screen face (the `NORTH` face rotated as for the block models of the other shows).
+ * A baked show's screen blocks are drawn by their block models (and the show animated while a screen is in view, see
+ * `ShowTicker`).
+ */
+public class ScreenRenderer implements BlockEntityRenderer<ScreenBlockEntity> {
+
+    /**
+     * How far in front of the block's face the screen is drawn (to avoid z-fighting).
+     */
+    private static final float SCREEN_OFFSET = 0.001F;
+
+    /**
+     * The direction of the screen face (the block models' `NORTH` face rotated by the variant's rotation) of each
+     * `Facing`.
+     */
+    private static final Map<Facing, Direction> FRONTS = new EnumMap<>(Facing.class);
+
+    static {
+        for (Facing facing: Facing.values()) {
+            BlockModelRotation rotation = BlockModelRotation.by(facing.getRotationX(), facing.getRotationY());
+            FRONTS.put(facing, Direction.rotate(rotation.getRotation().getMatrix(), Direction.NORTH));
+        }
+    }
+
+    /**
+     * @param facing a screen block's `Facing`
+     * @return the direction of the block's screen face
+     */
+    static Direction getFront(Facing facing) {
+        return FRONTS.get(facing);
+    }
+
+    @SuppressWarnings("unused")
+    public ScreenRenderer(BlockEntityRendererProvider.Context context) {
+    }
+
+    /**
+     * @return the distance within which the screen blocks are drawn (and so their show animated, a streamed show's
+     * screen blocks further away aren't drawn at all)
+     */
+    @Override
+    public int getViewDistance() {
+        return ClientConfig.SCREEN_ANIMATION_DISTANCE.get();
+    }
+
+    @Override
+    public void render(
+        ScreenBlockEntity entity, float partialTick, PoseStack poseStack, MultiBufferSource buffers,
+        int packedLight, int packedOverlay
+    ) {
+        Level level = entity.getLevel();
+        BlockState state = entity.getBlockState();
+        if (level == null || !(state.getBlock() instanceof ScreenBlock block)) {
+            return;
+        }
+        ShowProperties props = block.getShowProperties();
+        int x = entity.getTileX();
+        int y = entity.getTileY();
+        if (x >= props.getBlocksX() || y >= props.getBlocksY()) {
+            return;
+        }
+        // the screen face is culled (as in the block models) when the block in front of it hides it (so the show isn't
+        // advanced for it)
+        Facing facing = state.getValue(ScreenBlock.FACING);
+        Direction front = FRONTS.get(facing);
+        BlockPos pos = entity.getBlockPos();
+        if (!Block.shouldRenderFace(state, level, pos, front, pos.relative(front))) {
+            return;
+        }
+        ResourceLocation texture = ShowTicker.getTexture(props, level.getGameTime());
+        if (texture == null) {
+            return;
+        }
+
+        poseStack.pushPose();
+        poseStack.translate(0.5, 0.5, 0.5);
+        poseStack.mulPose(Vector3f.YP.rotationDegrees(-facing.getRotationY()));
+        poseStack.mulPose(Vector3f.XP.rotationDegrees(-facing.getRotationX()));
+        poseStack.translate(-0.5, -0.5, -0.5);
+
+        // the tile's part of the frame (tile `y` 0 is the top row)
+        float u0 = (float) x / props.getBlocksX();
+        float u1 = (float) (x + 1) / props.getBlocksX();
+        float v0 = (float) y / props.getBlocksY();
+        float v1 = (float) (y + 1) / props.getBlocksY();
+
+        // screens are lit by themselves
+        int light = LightTexture.FULL_BRIGHT;
+        Matrix4f pose = poseStack.last().pose();
+        Matrix3f normal = poseStack.last().normal();
+        VertexConsumer buffer = buffers.getBuffer(RenderType.entitySolid(texture));
+        // the `NORTH` face seen from the north has it's left edge at x = 1
+        vertex(buffer, pose, normal, 1, 1, u0, v0, packedOverlay, light);
+        vertex(buffer, pose, normal, 1, 0, u0, v1, packedOverlay, light);
+        vertex(buffer, pose, normal, 0, 0, u1, v1, packedOverlay, light);
+        vertex(buffer, pose, normal, 0, 1, u1, v0, packedOverlay, light);
+        poseStack.popPose();
+    }
+
+    private static void vertex(
+        VertexConsumer buffer, Matrix4f pose, Matrix3f normal, float x, float y, float u, float v, int overlay, int light
+    ) {
+        buffer.vertex(pose, x, y, -SCREEN_OFFSET)
+            .color(255, 255, 255, 255)
+            .uv(u, v)
+            .overlayCoords(overlay)
+            .uv2(light)
+            .normal(normal, 0, 0, -1)
+            .endVertex();
+    }
+}
@@ -0,0 +1,163 @@
+package uk.me.msb.cinemashow.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.Tickable;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.registries.RegistryObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.block.ScreenBlock;
+import uk.me.msb.cinemashow.mixin.AnimatedTextureAccessor;
+import uk.me.msb.cinemashow.mixin.FrameInfoAccessor;
+import uk.me.msb.cinemashow.mixin.TextureAtlasAccessor;
+import uk.me.msb.cinemashow.setup.Registration;
+
+import java.util.*;
+
+import static uk.me.msb.cinemashow.CinemaShow.MODID;
+
+/**
+ * Ticks all of a baked show's animated tile textures in the block atlas together, and only while one of the show's
+ * screen blocks is seen (see `ShowTicker.isSeen()`), so the screens that aren't seen skip the texture uploads as the
+ * streamed shows do. The block atlas ticks every animated sprite each client tick so once the atlas is stitched the
+ * tickers of each show's sprites are replaced by a single one for the show: the visibility is checked once per show
+ * and the show's tiles change frame (each is still uploaded to it's own region of the atlas) one after another in the
+ * same tick.
+ * <p>
+ * A sprite's animation is advanced a tick at a time, so when a frozen show is seen again each of it's sprites is first
+ * moved to the frame for the game time (through `AnimatedTextureAccessor`) and the frame uploaded once if it changed.
+ * A frozen baked show so resumes at the correct frame, in step with it's other screens and as a streamed show does.
+ */
+public class ScreenSpriteTicker implements Tickable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The show's metadata.
+     */
+    private final ShowProperties props;
+
+    /**
+     * The own tickers of the show's animated sprites (each tile texture once, tiles can share a texture).
+     */
+    private final Tickable[] tickers;
+
+    /**
+     * The length in ticks of each sprite's animation.
+     */
+    private final int[] cycles;
+
+    /**
+     * Whether the show wasn't ticked in the previous tick (the sprites are moved to the frame for the game time when
+     * it's next seen).
+     */
+    private boolean frozen = true;
+
+    private ScreenSpriteTicker(ShowProperties props, Collection<Tickable> tickers) {
+        this.props = props;
+        this.tickers = tickers.toArray(new Tickable[0]);
+        this.cycles = new int[this.tickers.length];
+        for (int i = 0; i < this.tickers.length; i ++) {
+            for (Object frame: ((AnimatedTextureAccessor) this.tickers[i]).getFrames()) {
+                cycles[i] += ((FrameInfoAccessor) frame).getTime();
+            }
+        }
+    }
+
+    @Override
+    public void tick() {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null || !ShowTicker.isSeen(props)) {
+            frozen = true;
+            return;
+        }
+        if (frozen) {
+            frozen = false;
+            for (int i = 0; i < tickers.length; i ++) {
+                if (cycles[i] > 0) {
+                    seek((AnimatedTextureAccessor) tickers[i], cycles[i], level.getGameTime());
+                }
+            }
+            return;
+        }
+        for (Tickable ticker: tickers) {
+            ticker.tick();
+        }
+    }
+
+    /**
+     * Moves a sprite's animation to the frame for a game time, uploading the frame if it isn't the one shown.
+     *
+     * @param ticker   the sprite's ticker
+     * @param cycle    the length in ticks of the animation
+     * @param gameTime the level's game time in ticks
+     */
+    private static void seek(AnimatedTextureAccessor ticker, int cycle, long gameTime) {
+        List<?> frames = ticker.getFrames();
+        int time = (int) (gameTime % cycle);
+        int frame = 0;
+        int frameTime;
+        while (time >= (frameTime = ((FrameInfoAccessor) frames.get(frame)).getTime())) {
+            time -= frameTime;
+            frame ++;
+        }
+        int shown = ((FrameInfoAccessor) frames.get(ticker.getFrame())).getIndex();
+        int index = ((FrameInfoAccessor) frames.get(frame)).getIndex();
+        ticker.setFrame(frame);
+        ticker.setSubFrame(time);
+        if (index != shown) {
+            // the atlas is bound while it's animations are ticked
+            ticker.invokeUploadFrame(index);
+        }
+    }
+
+    /**
+     * Replaces the tickers of the baked shows' animated sprites in a stitched atlas (only the block atlas holds them)
+     * with one for each show.
+     *
+     * @param atlas the stitched atlas
+     */
+    public static void gate(TextureAtlas atlas) {
+        if (!atlas.location().equals(InventoryMenu.BLOCK_ATLAS)) {
+            return;
+        }
+        List<ScreenSpriteTicker> shows = new ArrayList<>();
+        Set<Tickable> gated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RegistryObject<Block> screenBlock: Registration.BLOCKS.getEntries()) {
+            ShowProperties props = ((ScreenBlock) screenBlock.get()).getShowProperties();
+            if (props.isStreamed()) {
+                continue;
+            }
+            Set<Tickable> showTickers = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int y = 0; y < props.getBlocksY(); y ++) {
+                for (int x = 0; x < props.getBlocksX(); x ++) {
+                    ResourceLocation texture = new ResourceLocation(
+                        MODID, String.format("block/%s", props.getTileTexture(x, y))
+                    );
+                    // a single frame tile isn't animated
+                    Tickable ticker = atlas.getSprite(texture).getAnimationTicker();
+                    if (ticker != null) {
+                        showTickers.add(ticker);
+                    }
+                }
+            }
+            if (!showTickers.isEmpty()) {
+                shows.add(new ScreenSpriteTicker(props, showTickers));
+                gated.addAll(showTickers);
+            }
+        }
+        List<Tickable> tickers = ((TextureAtlasAccessor) atlas).getAnimatedTextures();
+        int animated = tickers.size();
+        tickers.removeIf(gated::contains);
+        tickers.addAll(shows);
+        LOGGER.info(
+            "Gated {} of {} animated block textures by screen visibility in {} shows", gated.size(), animated,
+            shows.size()
+        );
+    }
+}
@@ -0,0 +1,267 @@
+package uk.me.msb.cinemashow.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.ShowContainer;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static uk.me.msb.cinemashow.CinemaShow.MODID;
+
+/**
+ * The playback state of a streamed show. Only the show's current frame is held (in a texture shared by all the
+ * show's screen blocks). Frames are decoded from the show's container on a background thread (for a delta encoded
+ * container only the next frame's changed tiles are applied when playing forwards): while a frame is shown the next
+ * one is decoded so that a frame change on the render thread is just an upload.
+ */
+public class ShowStream implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Where show containers in the mod's jar are extracted to so they can be memory mapped.
+     */
+    private static final Path CACHE_DIR = FMLPaths.GAMEDIR.get().resolve(MODID + "-cache").resolve(
+        ShowProperties.STREAMS_DIR
+    );
+
+    /**
+     * Decodes the frames of all the streams (one frame at a time).
+     */
+    private static final ExecutorService DECODER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Cinema Show stream decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The show's frames (only read on the decoder thread once open).
+     */
+    private final ShowContainer container;
+
+    /**
+     * The tick (from the start of the show) at which each frame ends.
+     */
+    private final int[] frameEnds;
+
+    /**
+     * The texture holding the current frame.
+     */
+    private final ShowTexture texture;
+
+    /**
+     * The location the texture is registered at.
+     */
+    private final ResourceLocation textureLocation;
+
+    /**
+     * Holds a decoded frame record (decoder thread).
+     */
+    private final byte[] record;
+
+    /**
+     * The index of the frame in `record` (-1 before the first frame is read, decoder thread).
+     */
+    private int decodedFrame = -1;
+
+    /**
+     * The decoding of a frame into the texture's pixels (null if none is in progress). It's result is the frame's
+     * index.
+     */
+    private Future<Integer> pending;
+
+    /**
+     * The index of the decoded frame in the texture's pixels that hasn't been uploaded (-1 if there isn't one).
+     */
+    private int readyFrame = -1;
+
+    /**
+     * The index of the frame uploaded to the texture (-1 before the first frame is uploaded).
+     */
+    private int currentFrame = -1;
+
+    /**
+     * The game time of the last update (-1 before the first).
+     */
+    private long updatedAt = -1;
+
+    private ShowStream(ShowProperties props, ShowContainer container) {
+        this.container = container;
+        this.frameEnds = new int[container.getFrameCount()];
+        int end = 0;
+        for (int i = 0; i < frameEnds.length; i ++) {
+            end += container.getFrameTime(i);
+            frameEnds[i] = end;
+        }
+        this.record = new byte[container.getFrameLength()];
+        this.texture = new ShowTexture(
+            container.getBlocksX() * container.getTileSize(), container.getBlocksY() * container.getTileSize()
+        );
+        this.textureLocation = new ResourceLocation(
+            MODID, String.format("%s/%s", ShowProperties.STREAMS_DIR, props.getBlockName())
+        );
+        Minecraft.getInstance().getTextureManager().register(textureLocation, texture);
+    }
+
+    /**
+     * Opens the show's container and creates it's texture.
+     *
+     * @param props the show's metadata
+     * @return the stream
+     * @throws IOException possible error when reading the container
+     */
+    public static ShowStream open(ShowProperties props) throws IOException {
+        Path path = ModList.get().getModFileById(MODID).getFile().findResource(
+            "assets", MODID, ShowProperties.STREAMS_DIR,
+            String.format("%s.%s", props.getBlockName(), ShowContainer.EXTENSION)
+        );
+        ShowContainer container = ShowContainer.open(path, CACHE_DIR);
+        if (container.getFrameCount() == 0) {
+            throw new IOException(String.format("No frames for %s", props.getBlockName()));
+        }
+        return new ShowStream(props, container);
+    }
+
+    public ResourceLocation getTextureLocation() {
+        return textureLocation;
+    }
+
+    /**
+     * Uploads the frame for the game time if it has been decoded and starts decoding the frame that is needed next.
+     * A frame that isn't ready yet (e.g. after a seek) is uploaded on a later update, until then the previous frame
+     * is shown. This is called for each screen block drawn so it returns straight away if the stream has already been
+     * updated for the tick.
+     *
+     * @param gameTime the level's game time in ticks
+     * @return the location of the texture (or null if the first frame hasn't been uploaded yet)
+     * @throws IOException possible error when reading a frame
+     */
+    public ResourceLocation update(long gameTime) throws IOException {
+        if (gameTime == updatedAt) {
+            return currentFrame < 0 ? null : textureLocation;
+        }
+        updatedAt = gameTime;
+        int frame = frameAt(gameTime);
+        if (pending != null && pending.isDone()) {
+            readyFrame = getDecodedFrame(pending);
+            pending = null;
+        }
+        if (readyFrame == frame) {
+            texture.upload();
+            currentFrame = frame;
+            readyFrame = -1;
+        }
+        // decode the frame for the game time if it isn't shown, otherwise the next frame
+        int next = currentFrame == frame ? (frame + 1) % frameEnds.length : frame;
+        if (pending == null && readyFrame != next) {
+            readyFrame = -1;
+            pending = DECODER.submit(() -> decode(next));
+        }
+        return currentFrame < 0 ? null : textureLocation;
+    }
+
+    /**
+     * Decodes a frame into the texture's pixels (on the decoder thread).
+     *
+     * @param frame the frame's index
+     * @return the frame's index
+     * @throws IOException possible error when reading the frame
+     */
+    private int decode(int frame) throws IOException {
+        container.readFrame(frame, record, decodedFrame);
+        decodedFrame = frame;
+        copyTiles(record, texture.getPixels());
+        return frame;
+    }
+
+    /**
+     * @param decoding a completed decoding
+     * @return the index of the decoded frame
+     * @throws IOException the error decoding the frame
+     */
+    private static int getDecodedFrame(Future<Integer> decoding) throws IOException {
+        try {
+            return decoding.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Error decoding frame", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding frame", e);
+        }
+    }
+
+    /**
+     * @param gameTime the level's game time in ticks
+     * @return the index of the frame being shown at the game time
+     */
+    private int frameAt(long gameTime) {
+        int tick = (int) (gameTime % frameEnds[frameEnds.length - 1]);
+        // the first frame that ends after `tick`
+        int low = 0;
+        int high = frameEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (frameEnds[middle] > tick) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Copies a decoded frame record (tiles of RGB pixels) into the frame's pixels a row of a tile at a time.
+     *
+     * @param record the decoded frame record
+     * @param pixels the frame's RGB rows
+     */
+    private void copyTiles(byte[] record, ByteBuffer pixels) {
+        int tileSize = container.getTileSize();
+        int tileRowLength = tileSize * ShowContainer.BYTES_PER_PIXEL;
+        int rowLength = container.getBlocksX() * tileRowLength;
+        int i = 0;
+        for (int tileY = 0; tileY < container.getBlocksY(); tileY ++) {
+            for (int tileX = 0; tileX < container.getBlocksX(); tileX ++) {
+                for (int row = 0; row < tileSize; row ++) {
+                    pixels.put((tileY * tileSize + row) * rowLength + tileX * tileRowLength, record, i, tileRowLength);
+                    i += tileRowLength;
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the texture (waiting for a frame being decoded into it).
+     */
+    @Override
+    public void close() {
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (ExecutionException | CancellationException e) {
+                LOGGER.debug("Discarding frame decoded as the stream was closed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pending = null;
+        }
+        // (`TextureManager.release()` only deletes the GL texture, closing it also frees the pixels)
+        texture.close();
+    }
+}
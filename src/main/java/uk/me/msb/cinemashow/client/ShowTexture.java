@@ -0,0 +1,83 @@
+package uk.me.msb.cinemashow.client;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.platform.TextureUtil;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.system.MemoryUtil;
+import uk.me.msb.cinemashow.ShowContainer;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * The texture holding a streamed show's current frame. The frame's pixels are held as RGB rows in native memory (the
+ * layout of a decoded frame record's tile rows) so a frame is copied in a row of a tile at a time and uploaded with a
+ * single `glTexSubImage2D` (rather than a pixel at a time into an RGBA `NativeImage` as for a `DynamicTexture`).
+ */
+public class ShowTexture extends AbstractTexture {
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * The frame's pixels (null once closed).
+     */
+    private ByteBuffer pixels;
+
+    /**
+     * Creates the texture (on the render thread).
+     *
+     * @param width  the frame's width in pixels
+     * @param height the frame's height in pixels
+     */
+    public ShowTexture(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = MemoryUtil.memCalloc(width * height * ShowContainer.BYTES_PER_PIXEL);
+        TextureUtil.prepareImage(getId(), width, height);
+        setFilter(false, false);
+    }
+
+    @Override
+    public void load(@Nonnull ResourceManager resourceManager) {
+    }
+
+    /**
+     * @return the frame's pixels: RGB rows from the top left (written by `ShowStream` between uploads)
+     */
+    public ByteBuffer getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Uploads the frame's pixels.
+     */
+    public void upload() {
+        RenderSystem.assertOnRenderThreadOrInit();
+        bind();
+        GlStateManager._pixelStore(GL11.GL_UNPACK_ROW_LENGTH, 0);
+        GlStateManager._pixelStore(GL11.GL_UNPACK_SKIP_PIXELS, 0);
+        GlStateManager._pixelStore(GL11.GL_UNPACK_SKIP_ROWS, 0);
+        GlStateManager._pixelStore(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GlStateManager._texSubImage2D(
+            GL11.GL_TEXTURE_2D, 0, 0, 0, width, height, GL11.GL_RGB, GL11.GL_UNSIGNED_BYTE,
+            MemoryUtil.memAddress(pixels)
+        );
+    }
+
+    /**
+     * Releases the texture and it's pixels (safe to call more than once).
+     */
+    @Override
+    public void close() {
+        if (pixels != null) {
+            MemoryUtil.memFree(pixels);
+            pixels = null;
+        }
+        releaseId();
+    }
+}
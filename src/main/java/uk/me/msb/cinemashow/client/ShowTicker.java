@@ -0,0 +1,173 @@
+package uk.me.msb.cinemashow.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.CinemaShow;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.block.ScreenIndex;
+import uk.me.msb.cinemashow.setup.ClientConfig;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Advances the shows drawn by `ScreenRenderer`. Each show has a single texture (see `ShowStream`) that is advanced at
+ * most once per client tick (as for the animated block textures) so a frame change is a single upload for the whole
+ * show however many of it's screen blocks are drawn. A show is only advanced when one of it's screen blocks is drawn
+ * (in view and within `ClientConfig.SCREEN_ANIMATION_DISTANCE`), a show that isn't seen is frozen and skips the
+ * uploads. As the frame is found from the game time a frozen show resumes at the correct frame. A show's stream is
+ * opened when one of it's screen blocks is first drawn and closed when the level is unloaded or the resources are
+ * reloaded.
+ * <p>
+ * The baked shows' screen blocks are drawn by their block models and their animated textures are only ticked while
+ * seen (see `ScreenSpriteTicker`). Rather than have a block entity renderer called for every one of their screen blocks
+ * each frame, the screens of the baked shows in the client's level are held by `ScreenIndex.CLIENT` and a show is seen
+ * while the box enclosing one of it's screens is in view (the screen face facing the camera and within the frustum)
+ * and within `ClientConfig.SCREEN_ANIMATION_DISTANCE`. This is checked once per screen each frame, and not at all for
+ * the other screens of a show seen earlier in the tick.
+ */
+@Mod.EventBusSubscriber(modid = CinemaShow.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+@SuppressWarnings("unused")
+public class ShowTicker {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The streams of the shows that have been drawn keyed on the block name (only accessed on the render thread).
+     */
+    private static final Map<String, ShowStream> STREAMS = new HashMap<>();
+
+    /**
+     * The block names of shows whose stream couldn't be read (so the error is only logged once).
+     */
+    private static final Set<String> FAILED = new HashSet<>();
+
+    /**
+     * The game time at which a screen block of each baked show was last seen keyed on the block name (only accessed on
+     * the render thread).
+     */
+    private static final Map<String, Long> SEEN = new HashMap<>();
+
+    /**
+     * Records which of the baked shows have a screen in view.
+     */
+    @SubscribeEvent
+    public static void onRenderLevelStage(RenderLevelStageEvent event) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_SOLID_BLOCKS || level == null) {
+            return;
+        }
+        long gameTime = level.getGameTime();
+        Vec3 camera = event.getCamera().getPosition();
+        double distance = ClientConfig.SCREEN_ANIMATION_DISTANCE.get();
+        for (ScreenIndex.Screen screen: ScreenIndex.CLIENT.getScreens()) {
+            String blockName = screen.getId().blockName();
+            Long seenAt = SEEN.get(blockName);
+            if ((seenAt == null || seenAt != gameTime) && isInView(screen, camera, event.getFrustum(), distance)) {
+                SEEN.put(blockName, gameTime);
+            }
+        }
+    }
+
+    /**
+     * @param screen   a screen
+     * @param camera   the camera's position
+     * @param frustum  the camera's frustum
+     * @param distance the distance within which a screen is animated
+     * @return whether the screen's face can be seen from the camera
+     */
+    private static boolean isInView(ScreenIndex.Screen screen, Vec3 camera, Frustum frustum, double distance) {
+        AABB bounds = screen.getBounds();
+        // the screen face is on the side of the box the screen faces
+        Direction front = ScreenRenderer.getFront(screen.getId().facing());
+        Direction.Axis axis = front.getAxis();
+        Direction.AxisDirection step = front.getAxisDirection();
+        double face = step == Direction.AxisDirection.POSITIVE ? bounds.max(axis) : bounds.min(axis);
+        if ((axis.choose(camera.x, camera.y, camera.z) - face) * step.getStep() <= 0) {
+            return false;
+        }
+        double dx = Math.max(0, Math.max(bounds.minX - camera.x, camera.x - bounds.maxX));
+        double dy = Math.max(0, Math.max(bounds.minY - camera.y, camera.y - bounds.maxY));
+        double dz = Math.max(0, Math.max(bounds.minZ - camera.z, camera.z - bounds.maxZ));
+        return dx * dx + dy * dy + dz * dz < distance * distance && frustum.isVisible(bounds);
+    }
+
+    /**
+     * @param props a baked show's metadata
+     * @return whether one of the show's screens was in view in the current or previous tick
+     */
+    public static boolean isSeen(ShowProperties props) {
+        ClientLevel level = Minecraft.getInstance().level;
+        Long seenAt = SEEN.get(props.getBlockName());
+        return level != null && seenAt != null && level.getGameTime() - seenAt <= 1;
+    }
+
+    /**
+     * Called as a show's screen block is drawn.
+     *
+     * @param props    a streamed show's metadata
+     * @param gameTime the level's game time in ticks
+     * @return the location of the texture holding the show's current frame (or null if the show's stream can't be
+     * read or it's first frame isn't ready)
+     */
+    public static ResourceLocation getTexture(ShowProperties props, long gameTime) {
+        String blockName = props.getBlockName();
+        if (FAILED.contains(blockName)) {
+            return null;
+        }
+        ShowStream stream = STREAMS.get(blockName);
+        try {
+            if (stream == null) {
+                stream = ShowStream.open(props);
+                STREAMS.put(blockName, stream);
+            }
+            return stream.update(gameTime);
+        } catch (IOException e) {
+            if (stream != null) {
+                stream.close();
+                STREAMS.remove(blockName);
+            }
+            fail(blockName, e);
+            return null;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            ScreenIndex.CLIENT.clear();
+            closeAll();
+        }
+    }
+
+    /**
+     * Closes all the streams (they are opened again as their screen blocks are drawn) and forgets the failures and the
+     * seen shows.
+     */
+    public static void closeAll() {
+        STREAMS.values().forEach(ShowStream::close);
+        STREAMS.clear();
+        FAILED.clear();
+        SEEN.clear();
+    }
+
+    private static void fail(String blockName, IOException e) {
+        LOGGER.error("Error streaming show: {}", blockName, e);
+        FAILED.add(blockName);
+    }
+}
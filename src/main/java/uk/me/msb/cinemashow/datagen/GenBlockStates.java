@@ -1,49 +1,61 @@
 package uk.me.msb.cinemashow.datagen;
 
+import com.google.gson.JsonElement;
 import net.minecraft.core.Direction;
+import net.minecraft.data.CachedOutput;
 import net.minecraft.data.DataGenerator;
+import net.minecraft.data.DataProvider;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Block;
 import net.minecraftforge.client.model.generators.*;
 import net.minecraftforge.common.data.ExistingFileHelper;
+import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.registries.RegistryObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import uk.me.msb.cinemashow.CinemaShow;
 import uk.me.msb.cinemashow.ShowProperties;
 import uk.me.msb.cinemashow.block.Facing;
 import uk.me.msb.cinemashow.block.ScreenBlock;
+import uk.me.msb.cinemashow.client.ScreenModelLoader;
 import uk.me.msb.cinemashow.setup.Registration;
 
-import java.awt.*;
-import java.util.HashMap;
-import java.util.Map;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Class for generating resources for the screen block models and state.
  */
 public class GenBlockStates extends BlockStateProvider {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
     /**
-     * A map of all possible `Facing` values mapped to the `x` and `y` rotations necessary for a block model to face
-     * that way.
+     * The name of the model the tile models of every show are derived from.
      */
-    private static final Map<Facing, Point> ROTATIONS = new HashMap<>();
-
-    static {
-        ROTATIONS.put(Facing.NORTH, new Point(0, 0));
-        ROTATIONS.put(Facing.EAST, new Point(0, 90));
-        ROTATIONS.put(Facing.SOUTH, new Point(0, 180));
-        ROTATIONS.put(Facing.WEST, new Point(0, 270));
-        ROTATIONS.put(Facing.NORTH_DOWN, new Point(90, 0));
-        ROTATIONS.put(Facing.EAST_DOWN, new Point(90, 90));
-        ROTATIONS.put(Facing.SOUTH_DOWN, new Point(90, 180));
-        ROTATIONS.put(Facing.WEST_DOWN, new Point(90, 270));
-        ROTATIONS.put(Facing.NORTH_UP, new Point(270, 0));
-        ROTATIONS.put(Facing.EAST_UP, new Point(270, 90));
-        ROTATIONS.put(Facing.SOUTH_UP, new Point(270, 180));
-        ROTATIONS.put(Facing.WEST_UP, new Point(270, 270));
+    private static final String SCREEN_TEMPLATE = "block/screen_template";
+
+    /**
+     * The folder the resources are written to.
+     */
+    private final Path outputFolder;
+
+    /**
+     * A resource to be written.
+     *
+     * @param path the resource's file
+     * @param json builds the resource's JSON
+     */
+    private record Output(Path path, Supplier<JsonElement> json) {
     }
 
     public GenBlockStates(DataGenerator gen, ExistingFileHelper helper) {
         super(gen, CinemaShow.MODID, helper);
+        this.outputFolder = gen.getOutputFolder();
     }
 
     @Override
@@ -53,80 +65,128 @@ public class GenBlockStates extends BlockStateProvider {
         defaultModel.parent(models().getExistingFile(mcLoc("cube_all")));
         defaultModel.texture("all", modLoc("block/screen_base"));
 
-        // Create all mode and state resources for each screen block.
+        // Create the template the tile models are derived from: the `#screen` texture (replaced by the tile's texture
+        // when baked) on the `NORTH` face of the block and the `#back` texture on the others. Every face is culled
+        // when it's neighbour hides it so the faces shared by the blocks of a screen aren't drawn.
+        BlockModelBuilder templateModel = models().getBuilder(SCREEN_TEMPLATE);
+        templateModel.parent(models().getExistingFile(mcLoc("block/cube_all")));
+        templateModel.texture(ScreenModelLoader.SCREEN_TEXTURE, modLoc("block/screen_base"));
+        templateModel.texture("back", modLoc("block/screen_base"));
+        templateModel.texture("particle", modLoc("block/screen_base"));
+        templateModel.element()
+                .from(0, 0, 0)
+                .to(16, 16, 16)
+                .allFaces((direction, faceBuilder) -> faceBuilder
+                        .texture(direction == Direction.NORTH ? "#" + ScreenModelLoader.SCREEN_TEXTURE : "#back")
+                        .cullface(direction)
+                ).end();
+
+        // Create all model and state resources for each screen block.
         for (RegistryObject<Block> screenBlock: Registration.BLOCKS.getEntries()) {
-            String blockName = screenBlock.getId().getPath();
-            ShowProperties properties = Registration.SHOW_PROPERTIES.get(blockName);
+            ShowProperties properties = ((ScreenBlock) screenBlock.get()).getShowProperties();
             VariantBlockStateBuilder stateBuilder = getVariantBuilder(screenBlock.get());
-            createShowModelsAndState(properties, stateBuilder, defaultModel);
+            if (properties.isStreamed()) {
+                // The picture of a streamed show is drawn by `ScreenRenderer` so every state uses the
+                // default model.
+                ConfiguredModel[] variant = ConfiguredModel.builder().modelFile(defaultModel).build();
+                stateBuilder.forAllStates(showState -> variant);
+            } else {
+                createShowModelAndState(properties, stateBuilder, templateModel);
+            }
         }
     }
 
     /**
-     * Create all the models for the show's tiles (blocks) and create the block's state file with
-     * variants mapping all the state combinations to these models with a correct rotations.
+     * Create the show's screen model (see `ScreenModelLoader`, which derives the tile models from the template model)
+     * and the block's state file with a variant for each `Facing` mapping to the screen model with the correct
+     * rotation. The tile position is held by the block entity so the variants don't depend on the size of the show.
      *
      * @param properties the show's metadata
      * @param stateBuilder the variant builder for the screen block's state resource
-     * @param defaultModel the default block model
+     * @param template the screen template model
      */
-    private void createShowModelsAndState(
-            ShowProperties properties, VariantBlockStateBuilder stateBuilder, BlockModelBuilder defaultModel
+    private void createShowModelAndState(
+            ShowProperties properties, VariantBlockStateBuilder stateBuilder, ModelFile template
     ) {
-        // we keep track of the tile models we've created
-        Map<Integer, BlockModelBuilder> existingTileModels = new HashMap<>();
-
-        // for each combination of screen state ..
-        stateBuilder.forAllStates(showState -> {
-            ConfiguredModel.Builder<?> builder = ConfiguredModel.builder();
-
-            Facing facing = showState.getValue(ScreenBlock.FACING);
-            int x = showState.getValue(ScreenBlock.SCREEN_X);
-            int y = showState.getValue(ScreenBlock.SCREEN_Y);
-
-            // .. if state coords lie within the show's bounds ..
-            if (x < properties.getBlocksX() && y < properties.getBlocksY()) {
-
-                int tileModelKey = x + y * ShowProperties.BLOCKS_X_MAX;
-
-                BlockModelBuilder tileModel = existingTileModels.get(tileModelKey);
-
-                // .. and the model hasn't already been created..
-                if (tileModel == null) {
-                    // .. create a block model resource mapping the show tile texture to the `NORTH` face of the block
-                    String modelName = String.format(
-                            "block/%s_%d_%d", properties.getBlockName(), x, y
-                    );
-                    tileModel = models().getBuilder(modelName);
-                    tileModel.parent(models().getExistingFile(mcLoc("block/cube_all")));
-
-                    tileModel.texture("screen", modLoc(modelName));
-                    tileModel.texture("back", modLoc("block/screen_base"));
+        // the screen model selects the tile model from the block's tile position
+        BlockModelBuilder screenModel = models().getBuilder(String.format("block/%s", properties.getBlockName()));
+        screenModel.customLoader(ScreenLoaderBuilder::begin)
+                .show(properties.getBlockName())
+                .template(template.getLocation())
+                .end();
+
+        // Create the variant for each facing once (using the rotation for the facing) and map the states to them.
+        Map<Facing, ConfiguredModel[]> variants = new EnumMap<>(Facing.class);
+        for (Facing facing: Facing.values()) {
+            ConfiguredModel.Builder<?> builder = ConfiguredModel.builder().modelFile(screenModel);
+            if (facing.getRotationX() != 0) {
+                builder = builder.rotationX(facing.getRotationX());
+            }
+            if (facing.getRotationY() != 0) {
+                builder = builder.rotationY(facing.getRotationY());
+            }
+            variants.put(facing, builder.build());
+        }
+        stateBuilder.forAllStates(showState -> variants.get(showState.getValue(ScreenBlock.FACING)));
+    }
 
-                    tileModel.element()
-                            .from(0, 0, 0)
-                            .to(16, 16, 16)
-                            .allFaces((direction, faceBuilder) -> faceBuilder.texture(
-                                    direction == Direction.NORTH ? "#screen" : "#back")
-                            ).end();
+    /**
+     * Builds and writes the resources, logging the number written and the time taken. The models and states are
+     * registered one at a time (the builders aren't thread safe) but their JSON is built, serialised and hashed in
+     * parallel. Only the writes to the cache are serialised.
+     */
+    @Override
+    public void run(@Nonnull CachedOutput cache) throws IOException {
+        long start = System.nanoTime();
+        models().generatedModels.clear();
+        itemModels().generatedModels.clear();
+        registeredBlocks.clear();
+        registerStatesAndModels();
+
+        List<Output> outputs = new ArrayList<>();
+        for (BlockModelBuilder model: models().generatedModels.values()) {
+            outputs.add(new Output(modelPath(model.getLocation()), model::toJson));
+        }
+        for (ItemModelBuilder model: itemModels().generatedModels.values()) {
+            outputs.add(new Output(modelPath(model.getLocation()), model::toJson));
+        }
+        for (Map.Entry<Block, IGeneratedBlockstate> state: registeredBlocks.entrySet()) {
+            ResourceLocation name = Objects.requireNonNull(ForgeRegistries.BLOCKS.getKey(state.getKey()));
+            Path path = outputFolder.resolve(
+                String.format("assets/%s/blockstates/%s.json", name.getNamespace(), name.getPath())
+            );
+            outputs.add(new Output(path, state.getValue()::toJson));
+        }
 
-                    existingTileModels.put(tileModelKey, tileModel);
+        CachedOutput serialisedCache = (path, data, hash) -> {
+            synchronized (cache) {
+                cache.writeIfNeeded(path, data, hash);
+            }
+        };
+        try {
+            outputs.parallelStream().forEach(output -> {
+                try {
+                    DataProvider.saveStable(serialisedCache, output.json().get(), output.path());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        LOGGER.info(
+                "Generated {} block states and {} block models in {} ms", registeredBlocks.size(),
+                models().generatedModels.size(), (System.nanoTime() - start) / 1_000_000
+        );
+    }
 
-                // Create the variant state mapping using the rotation defined in `ROTATIONS`.
-                builder.modelFile(tileModel);
-                Point rotation = ROTATIONS.get(facing);
-                if (rotation.x != 0) {
-                    builder = builder.rotationX(rotation.x);
-                }
-                if (rotation.y != 0) {
-                    builder = builder.rotationY(rotation.y);
-                }
-            } else {
-                // If out of bounds, just map the default model.
-                builder.modelFile(defaultModel);
-            }
-            return builder.build();
-        });
+    /**
+     * @param location a model's location
+     * @return the model's file
+     */
+    private Path modelPath(ResourceLocation location) {
+        return outputFolder.resolve(
+            String.format("assets/%s/models/%s.json", location.getNamespace(), location.getPath())
+        );
     }
 }
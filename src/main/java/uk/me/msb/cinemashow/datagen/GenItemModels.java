@@ -1,42 +1,68 @@
 package uk.me.msb.cinemashow.datagen;
 
 import net.minecraft.core.Direction;
+import net.minecraft.data.CachedOutput;
 import net.minecraft.data.DataGenerator;
 import net.minecraft.world.item.Item;
 import net.minecraftforge.client.model.generators.ItemModelBuilder;
 import net.minecraftforge.client.model.generators.ItemModelProvider;
 import net.minecraftforge.common.data.ExistingFileHelper;
 import net.minecraftforge.registries.RegistryObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import uk.me.msb.cinemashow.CinemaShow;
 import uk.me.msb.cinemashow.setup.Registration;
 
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
 /**
  * Class for generating resources for the screen block item models.
  */
 public class GenItemModels extends ItemModelProvider {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The name of the model shared by every screen block item.
+     */
+    private static final String SCREEN_ITEM = "item/screen_item";
+
     public GenItemModels(DataGenerator generator, ExistingFileHelper existingFileHelper) {
         super(generator, CinemaShow.MODID, existingFileHelper);
     }
 
     @Override
     protected void registerModels() {
-        // for each screen item block ..
+        // create the item model with `block/screen_item` texture on a face that's visible in the inventory, etc ..
+        ItemModelBuilder screenItem = getBuilder(SCREEN_ITEM);
+        screenItem.parent(getExistingFile(mcLoc("block/cube_all")));
+
+        screenItem.texture("screen", modLoc("block/screen_item"));
+        screenItem.texture("back", modLoc("block/screen_base"));
+
+        screenItem.element()
+                .from(0, 0, 0)
+                .to(16, 16, 16)
+                .allFaces((direction, faceBuilder) -> faceBuilder.texture(
+                        direction == Direction.UP ? "#screen" : "#back"
+                )).end();
+
+        // .. and for each screen item block an item model that only names it as it's parent
         for (RegistryObject<Item> screenBlockItem: Registration.ITEMS.getEntries()) {
-            // .. create an item model with `block/screen_assigned` texture on a face
-            // that's visible in the inventory, etc ..
-            ItemModelBuilder builder = getBuilder(screenBlockItem.getId().getPath());
-            builder.parent(getExistingFile(mcLoc("block/cube_all")));
-
-            builder.texture("screen", modLoc("block/screen_item"));
-            builder.texture("back", modLoc("block/screen_base"));
-
-            builder.element()
-                    .from(0, 0, 0)
-                    .to(16, 16, 16)
-                    .allFaces((direction, faceBuilder) -> faceBuilder.texture(
-                            direction == Direction.UP ? "#screen" : "#back"
-                    )).end();
+            getBuilder(screenBlockItem.getId().getPath()).parent(screenItem);
         }
     }
+
+    /**
+     * Builds and writes the resources, logging the number written and the time taken.
+     */
+    @Override
+    public void run(@Nonnull CachedOutput cache) throws IOException {
+        long start = System.nanoTime();
+        super.run(cache);
+        LOGGER.info(
+                "Generated {} item models in {} ms", generatedModels.size(), (System.nanoTime() - start) / 1_000_000
+        );
+    }
 }
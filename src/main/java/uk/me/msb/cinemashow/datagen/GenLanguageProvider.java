@@ -5,6 +5,7 @@ import net.minecraft.world.level.block.Block;
 import net.minecraftforge.common.data.LanguageProvider;
 import net.minecraftforge.registries.RegistryObject;
 import uk.me.msb.cinemashow.CinemaShow;
+import uk.me.msb.cinemashow.block.ScreenBlock;
 import uk.me.msb.cinemashow.setup.Registration;
 
 import static uk.me.msb.cinemashow.setup.ModSetup.TAB_NAME;
@@ -24,9 +25,8 @@ public class GenLanguageProvider extends LanguageProvider {
         // for each screen block ..
         for (RegistryObject<Block> screenBlock: Registration.BLOCKS.getEntries()) {
             final String name;
-            String blockName = screenBlock.getId().getPath();
             // give the screen the show name
-            name = Registration.SHOW_PROPERTIES.get(blockName).getShowName();
+            name = ((ScreenBlock) screenBlock.get()).getShowProperties().getShowName();
             add(screenBlock.get(), name);
         }
     }
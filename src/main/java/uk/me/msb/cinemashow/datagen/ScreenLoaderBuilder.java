@@ -0,0 +1,50 @@
+package uk.me.msb.cinemashow.datagen;
+
+import com.google.gson.JsonObject;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.client.model.generators.CustomLoaderBuilder;
+import net.minecraftforge.client.model.generators.ModelBuilder;
+import net.minecraftforge.common.data.ExistingFileHelper;
+import uk.me.msb.cinemashow.client.ScreenModelLoader;
+
+/**
+ * Builds the `ScreenModelLoader` part of a show's screen block model.
+ */
+public class ScreenLoaderBuilder<T extends ModelBuilder<T>> extends CustomLoaderBuilder<T> {
+
+    /**
+     * The show's block name.
+     */
+    private String show;
+
+    /**
+     * The template model the show's tile models are derived from.
+     */
+    private ResourceLocation template;
+
+    protected ScreenLoaderBuilder(T parent, ExistingFileHelper existingFileHelper) {
+        super(ScreenModelLoader.ID, parent, existingFileHelper);
+    }
+
+    public static <T extends ModelBuilder<T>> ScreenLoaderBuilder<T> begin(T parent, ExistingFileHelper helper) {
+        return new ScreenLoaderBuilder<>(parent, helper);
+    }
+
+    public ScreenLoaderBuilder<T> show(String show) {
+        this.show = show;
+        return this;
+    }
+
+    public ScreenLoaderBuilder<T> template(ResourceLocation template) {
+        this.template = template;
+        return this;
+    }
+
+    @Override
+    public JsonObject toJson(JsonObject json) {
+        json = super.toJson(json);
+        json.addProperty("show", show);
+        json.addProperty("template", template.toString());
+        return json;
+    }
+}
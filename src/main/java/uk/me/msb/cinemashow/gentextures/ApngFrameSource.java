@@ -0,0 +1,284 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A frame source for a show defined by a single animated PNG. ImageIO only decodes an APNG's
+ * default image so the file's chunks are streamed and each frame's data is wrapped as a standalone
+ * PNG that is decoded and composited onto a canvas (according to the frame's blend and dispose
+ * operations). Only a single frame's data is held at a time. The frame delays are used as the
+ * frame times.
+ */
+public class ApngFrameSource implements FrameSource {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    /**
+     * The chunks before the image data that are needed to decode each frame.
+     */
+    private static final Set<String> SHARED_CHUNKS = Set.of(
+        "PLTE", "tRNS", "gAMA", "cHRM", "sRGB", "iCCP", "sBIT"
+    );
+
+    private static final int DISPOSE_OP_BACKGROUND = 1;
+    private static final int DISPOSE_OP_PREVIOUS = 2;
+    private static final int BLEND_OP_SOURCE = 0;
+
+    /**
+     * The APNG file.
+     */
+    private final File file;
+
+    /**
+     * The show's default frame time in ticks (used for frames without a delay).
+     */
+    private final int frameTime;
+
+    /**
+     * The frame headers (read on demand).
+     */
+    private List<FrameHeader> headers;
+
+    public ApngFrameSource(File file, int frameTime) {
+        this.file = file;
+        this.frameTime = frameTime;
+    }
+
+    /**
+     * A PNG chunk.
+     */
+    private record Chunk(String type, byte[] data) {
+    }
+
+    /**
+     * A frame control (`fcTL`) chunk.
+     */
+    private record FrameControl(
+        int width, int height, int x, int y, int delayNumerator, int delayDenominator, int disposeOp, int blendOp
+    ) {
+        static FrameControl parse(byte[] data) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            buffer.getInt(); // sequence number
+            return new FrameControl(
+                buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getShort() & 0xffff, buffer.getShort() & 0xffff, buffer.get(), buffer.get()
+            );
+        }
+
+        double delaySeconds() {
+            return (double) delayNumerator / (delayDenominator == 0 ? 100 : delayDenominator);
+        }
+    }
+
+    /**
+     * @param file a possible APNG file
+     * @return whether the file is a PNG with an animation control (`acTL`) chunk
+     * @throws IOException possible error when reading the file
+     */
+    public static boolean isApng(File file) throws IOException {
+        try (DataInputStream input = open(file)) {
+            if (input == null) {
+                return false;
+            }
+            // the animation control chunk must appear before the image data
+            for (Chunk chunk = readChunk(input, true); chunk != null; chunk = readChunk(input, true)) {
+                if (chunk.type().equals("acTL")) {
+                    return true;
+                }
+                if (chunk.type().equals("IDAT")) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The frame headers are read from the frame control chunks (the image data is skipped). All
+     * frames have the APNG's canvas size.
+     */
+    @Override
+    public List<FrameHeader> headers() throws IOException {
+        if (headers == null) {
+            List<FrameHeader> frames = new ArrayList<>();
+            try (DataInputStream input = open(file)) {
+                if (input == null) {
+                    throw new IOException(String.format("Not a PNG: %s", file));
+                }
+                Dimension size = null;
+                for (Chunk chunk = readChunk(input, false); chunk != null; chunk = readChunk(input, false)) {
+                    if (chunk.type().equals("IHDR")) {
+                        size = headerSize(chunk.data());
+                    } else if (chunk.type().equals("fcTL") && size != null) {
+                        FrameControl control = FrameControl.parse(chunk.data());
+                        frames.add(new FrameHeader(
+                            file.toPath(), size.width, size.height,
+                            FrameSource.secondsToTicks(control.delaySeconds(), frameTime)
+                        ));
+                    }
+                }
+            }
+            headers = frames;
+        }
+        return headers;
+    }
+
+    @Override
+    public void forEach(FrameConsumer consumer) throws IOException {
+        List<FrameHeader> frames = headers();
+        try (DataInputStream input = open(file)) {
+            if (input == null) {
+                throw new IOException(String.format("Not a PNG: %s", file));
+            }
+            byte[] imageHeader = null;
+            List<Chunk> shared = new ArrayList<>();
+            BufferedImage canvas = null;
+            FrameControl control = null;
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            int index = 0;
+            for (Chunk chunk = readChunk(input, true); chunk != null; chunk = readChunk(input, true)) {
+                switch (chunk.type()) {
+                    case "IHDR" -> {
+                        imageHeader = chunk.data();
+                        Dimension size = headerSize(imageHeader);
+                        canvas = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+                    }
+                    case "fcTL", "IEND" -> {
+                        // the previous frame's data is complete
+                        if (control != null) {
+                            canvas = composite(canvas, control, decode(imageHeader, shared, control, data.toByteArray()),
+                                    frames.get(index), consumer, index == 0);
+                            index ++;
+                        }
+                        control = chunk.type().equals("fcTL") ? FrameControl.parse(chunk.data()) : null;
+                        data.reset();
+                    }
+                    // the default image is only a frame if it was preceded by a frame control chunk
+                    case "IDAT" -> {
+                        if (control != null) {
+                            data.write(chunk.data());
+                        }
+                    }
+                    // skip the sequence number
+                    case "fdAT" -> data.write(chunk.data(), 4, chunk.data().length - 4);
+                    default -> {
+                        if (SHARED_CHUNKS.contains(chunk.type())) {
+                            shared.add(chunk);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a frame onto the canvas, passes the canvas to the consumer and then disposes of the frame.
+     *
+     * @return the canvas to use for the next frame
+     */
+    private static BufferedImage composite(
+        BufferedImage canvas, FrameControl control, BufferedImage frame, FrameHeader header,
+        FrameConsumer consumer, boolean first
+    ) throws IOException {
+        Rectangle bounds = new Rectangle(control.x(), control.y(), control.width(), control.height());
+        // restoring the first frame to "previous" is treated as restoring to the background
+        int disposeOp = first && control.disposeOp() == DISPOSE_OP_PREVIOUS ? DISPOSE_OP_BACKGROUND : control.disposeOp();
+        BufferedImage previous = disposeOp == DISPOSE_OP_PREVIOUS ? GifFrameSource.copy(canvas) : null;
+
+        if (control.blendOp() == BLEND_OP_SOURCE) {
+            GifFrameSource.clear(canvas, bounds);
+        }
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.drawImage(frame, bounds.x, bounds.y, null);
+        graphics.dispose();
+
+        consumer.accept(canvas, header);
+
+        if (disposeOp == DISPOSE_OP_BACKGROUND) {
+            GifFrameSource.clear(canvas, bounds);
+        } else if (previous != null) {
+            return previous;
+        }
+        return canvas;
+    }
+
+    /**
+     * Wraps a frame's image data as a standalone PNG and decodes it.
+     */
+    private static BufferedImage decode(byte[] imageHeader, List<Chunk> shared, FrameControl control, byte[] data)
+            throws IOException {
+        byte[] frameHeader = Arrays.copyOf(imageHeader, imageHeader.length);
+        ByteBuffer.wrap(frameHeader).putInt(control.width()).putInt(control.height());
+        ByteArrayOutputStream png = new ByteArrayOutputStream(data.length + 1024);
+        DataOutputStream output = new DataOutputStream(png);
+        output.write(SIGNATURE);
+        PngEncoder.writeChunk(output, "IHDR", frameHeader, 0, frameHeader.length);
+        for (Chunk chunk: shared) {
+            PngEncoder.writeChunk(output, chunk.type(), chunk.data(), 0, chunk.data().length);
+        }
+        PngEncoder.writeChunk(output, "IDAT", data, 0, data.length);
+        PngEncoder.writeChunk(output, "IEND", new byte[0], 0, 0);
+        BufferedImage frame = ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+        if (frame == null) {
+            throw new IOException("Unable to decode an APNG frame");
+        }
+        return frame;
+    }
+
+    private static Dimension headerSize(byte[] imageHeader) {
+        ByteBuffer buffer = ByteBuffer.wrap(imageHeader);
+        return new Dimension(buffer.getInt(), buffer.getInt());
+    }
+
+    /**
+     * @return a stream positioned after the PNG signature or null if the file isn't a PNG
+     */
+    private static DataInputStream open(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        byte[] signature = new byte[SIGNATURE.length];
+        if (input.read(signature) != signature.length || !Arrays.equals(signature, SIGNATURE)) {
+            input.close();
+            return null;
+        }
+        return input;
+    }
+
+    /**
+     * Reads the next chunk.
+     *
+     * @param input    the PNG stream
+     * @param withData whether the chunk's data is needed (otherwise only chunks needed for the
+     *                 headers are read, other data is skipped)
+     * @return the chunk or null at the end of the stream
+     */
+    private static Chunk readChunk(DataInputStream input, boolean withData) throws IOException {
+        int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] typeBytes = new byte[4];
+        input.readFully(typeBytes);
+        String type = new String(typeBytes, StandardCharsets.US_ASCII);
+        byte[] data;
+        if (withData || type.equals("IHDR") || type.equals("fcTL") || type.equals("acTL")) {
+            data = new byte[length];
+            input.readFully(data);
+        } else {
+            data = new byte[0];
+            input.skipNBytes(length);
+        }
+        input.readInt(); // CRC
+        return new Chunk(type, data);
+    }
+}
@@ -0,0 +1,14 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.nio.file.Path;
+
+/**
+ * The header information of a show's frame (read without decoding the frame's pixels).
+ *
+ * @param path   the file the frame is read from
+ * @param width  the frame's width
+ * @param height the frame's height
+ * @param time   the time the frame is shown for in ticks
+ */
+public record FrameHeader(Path path, int width, int height, int time) {
+}
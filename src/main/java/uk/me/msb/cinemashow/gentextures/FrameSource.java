@@ -0,0 +1,78 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A source of a show's frames. The frame headers can be read without decoding any pixels and the
+ * frames themselves are decoded one at a time.
+ */
+public interface FrameSource {
+
+    /**
+     * Receives each decoded frame.
+     */
+    @FunctionalInterface
+    interface FrameConsumer {
+        /**
+         * @param image  the decoded frame (only valid until the method returns)
+         * @param header the frame's header
+         * @throws IOException possible error when processing the frame
+         */
+        void accept(BufferedImage image, FrameHeader header) throws IOException;
+    }
+
+    /**
+     * @return the headers of all the frames in play order
+     * @throws IOException possible error when reading the frames
+     */
+    List<FrameHeader> headers() throws IOException;
+
+    /**
+     * Decodes each frame in play order and passes it to `consumer`.
+     *
+     * @param consumer receives the frames
+     * @throws IOException possible error when reading the frames
+     */
+    void forEach(FrameConsumer consumer) throws IOException;
+
+    /**
+     * Creates the frame source for a show sub-folder. If the sub-folder contains a single animated
+     * GIF or APNG it's frames are used, otherwise each image file is a frame.
+     *
+     * @param showDir   the show sub-folder
+     * @param frameTime the show's default frame time in ticks
+     * @return the frame source
+     * @throws IOException possible error when reading the sub-folder
+     */
+    static FrameSource forShow(File showDir, int frameTime) throws IOException {
+        ImageFolderSource folder = new ImageFolderSource(showDir, frameTime);
+        List<FrameHeader> headers = folder.headers();
+        if (headers.size() == 1) {
+            File file = headers.get(0).path().toFile();
+            if (GifFrameSource.isAnimatedGif(file)) {
+                return new GifFrameSource(file, frameTime);
+            }
+            if (ApngFrameSource.isApng(file)) {
+                return new ApngFrameSource(file, frameTime);
+            }
+        }
+        return folder;
+    }
+
+    /**
+     * Converts a frame delay in seconds to ticks (at least 1).
+     *
+     * @param seconds   the delay
+     * @param frameTime the time used when the delay is zero
+     * @return the delay in ticks
+     */
+    static int secondsToTicks(double seconds, int frameTime) {
+        if (seconds <= 0) {
+            return frameTime;
+        }
+        return Math.max(1, (int) Math.round(seconds * 20));
+    }
+}
@@ -3,9 +3,11 @@ package uk.me.msb.cinemashow.gentextures;
 import com.google.gson.stream.JsonWriter;
 import com.mojang.logging.LogUtils;
 import org.slf4j.Logger;
+import uk.me.msb.cinemashow.ContainerEncoding;
+import uk.me.msb.cinemashow.ShowContainer;
 import uk.me.msb.cinemashow.ShowProperties;
-
-import javax.imageio.ImageIO;
+import uk.me.msb.cinemashow.ShowRegistry;
+import uk.me.msb.cinemashow.TileIterableIterator;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -14,6 +16,8 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
 
 /**
  * An executable class that generates sets of MC animated block textures from an input of sets of
@@ -34,6 +38,22 @@ public class GenerateTextures {
      */
     public static final String FORMAT_TYPE = "png";
 
+    /**
+     * The number of bytes used by a decoded pixel (used for estimating a show's footprint).
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /**
+     * The number of frame records held by a container writer (used for estimating a streamed show's
+     * footprint).
+     */
+    private static final int CONTAINER_RECORDS = 4;
+
+    /**
+     * The resource pack format of the tier resource packs.
+     */
+    private static final int PACK_FORMAT = 9;
+
     /**
      * The source folder containing the show sub-folders
      */
@@ -49,200 +69,701 @@ public class GenerateTextures {
      */
     private final File texturesDir;
 
+    /**
+     * The folder holding the resource packs of the resolution tiers (next to the mod's `assets`
+     * folder)
+     */
+    private final File tierPacksDir;
+
+    /**
+     * The optional settings for the run.
+     */
+    private final GeneratorOptions options;
+
+    /**
+     * The encoder for the texture images.
+     */
+    private final PngEncoder pngEncoder;
+
+    /**
+     * The scaler for the frame images.
+     */
+    private final ImageScaler scaler;
+
     public GenerateTextures(String srcDir, String assetsDir) {
+        this(srcDir, assetsDir, new GeneratorOptions());
+    }
+
+    public GenerateTextures(String srcDir, String assetsDir, GeneratorOptions options) {
         this.srcDir = new File(srcDir);
         this.assetsDir = new File(assetsDir);
         this.texturesDir = Paths.get(
                 this.assetsDir.getAbsolutePath(), "textures", "block"
         ).toFile();
+        this.tierPacksDir = new File(
+                this.assetsDir.getAbsoluteFile().getParentFile().getParentFile(), ShowProperties.TIER_PACKS_DIR
+        );
+        this.options = options;
+        this.pngEncoder = new PngEncoder(options.getPngMode());
+        this.scaler = new ImageScaler(options.getScaleFilter());
     }
 
     private void run() {
 
-        // create the destination folder, if necessary
+        // create the destination folders (and the tier resource packs), if necessary
         try {
-            Files.createDirectories(texturesDir.toPath());
+            for (int pixelsPerBlock: options.getTiers()) {
+                Files.createDirectories(texturesDir(pixelsPerBlock).toPath());
+                if (pixelsPerBlock != ShowProperties.PIXELS_PER_BLOCK) {
+                    saveTierPackMetadata(pixelsPerBlock);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException("IO error creating the destination folder", e);
         }
 
-        final List<String> showBlockNames = new ArrayList<>();
+        // The show sub-folders are sorted so that the show index is always written in the same order.
+        File[] showDirs = Objects.requireNonNull(srcDir.listFiles(File::isDirectory));
+        Arrays.sort(showDirs);
+
+        File manifestFile = new File(assetsDir, GenerationManifest.MANIFEST_FILENAME);
+        final GenerationManifest previousManifest;
+        try {
+            previousManifest = GenerationManifest.load(manifestFile);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("IO error reading `%s`", manifestFile), e);
+        }
+
+        // The shows are processed on a fork/join pool so that the parallel steps within a show
+        // (parallel streams started on one of the pool's threads) run on the same pool. The pool
+        // never adds threads (e.g. to make up for a thread waiting on a join) so `--threads` is
+        // the number of threads used in total.
+        int threads = options.getThreads();
+        ExecutorService executor = new ForkJoinPool(
+            threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+            threads, threads, 1, pool -> true, 60, TimeUnit.SECONDS
+        );
+        final List<Future<GenerationManifest.ShowEntry>> results = new ArrayList<>();
+        try {
+            // Hash the inputs of each show (on the pool as this reads every frame).
+            final List<Future<String>> inputHashes = new ArrayList<>();
+            for (File showDir: showDirs) {
+                inputHashes.add(executor.submit(() -> GenerationManifest.hashInputs(showDir, options.describeOutputSettings())));
+            }
 
-        // Processes each show sub-folder.
-        for (File showDir: Objects.requireNonNull(srcDir.listFiles())) {
-            if (showDir.isDirectory()) {
+            // Processes the show sub-folders that have changed on a bounded pool. A show is only
+            // submitted once it's estimated footprint fits into the memory budget (shows are
+            // submitted in order so a large show can't be starved by smaller ones).
+            MemoryBudget budget = new MemoryBudget(options.getMemoryBudget());
+            for (int i = 0; i < showDirs.length; i ++) {
+                File showDir = showDirs[i];
+                GenerationManifest.ShowEntry previous = previousManifest.get(showDir.getName());
+                long footprint;
+                String inputHash;
                 try {
-                    showBlockNames.add(processShow(showDir));
-                } catch (IOException e) {
-                    throw new RuntimeException(
-                        String.format("IO error processing: %s", showDir.getAbsolutePath()), e
-                    );
+                    inputHash = inputHashes.get(i).get();
+                    if (previous != null && previous.getInputHash().equals(inputHash) && previous.isIntact(assetsDir)) {
+                        LOGGER.info("Skipping unchanged show: {}", showDir.getName());
+                        results.add(CompletableFuture.completedFuture(previous));
+                        continue;
+                    }
+                    footprint = budget.acquire(estimateFootprint(showDir));
+                } catch (ExecutionException e) {
+                    results.add(CompletableFuture.failedFuture(e.getCause()));
+                    continue;
+                } catch (IOException | RuntimeException e) {
+                    results.add(CompletableFuture.failedFuture(e));
+                    continue;
+                }
+                results.add(executor.submit(() -> {
+                    try {
+                        ShowOutputs outputs = processShow(showDir);
+                        GenerationManifest.ShowEntry entry = GenerationManifest.createEntry(
+                            inputHash, outputs.blockName(), outputs.files(), assetsDir
+                        );
+                        deleteStaleOutputs(previous, entry);
+                        return entry;
+                    } finally {
+                        budget.release(footprint);
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scheduling the shows", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Collect the manifest entries (in show folder order) and any failures.
+        final GenerationManifest manifest = new GenerationManifest();
+        final List<String> showBlockNames = new ArrayList<>();
+        final List<String> failedShows = new ArrayList<>();
+        final List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < showDirs.length; i ++) {
+            try {
+                GenerationManifest.ShowEntry entry = results.get(i).get();
+                manifest.put(showDirs[i].getName(), entry);
+                showBlockNames.add(entry.getBlockName());
+            } catch (ExecutionException e) {
+                LOGGER.error("Error processing: {}", showDirs[i].getAbsolutePath(), e.getCause());
+                failedShows.add(showDirs[i].getName());
+                failures.add(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while processing the shows", e);
+            }
+        }
+
+        // Remove the resources of shows whose sub-folders no longer exist.
+        Set<String> showDirNames = new HashSet<>();
+        for (File showDir: showDirs) {
+            showDirNames.add(showDir.getName());
+        }
+        for (String showDirName: previousManifest.showDirNames()) {
+            if (!showDirNames.contains(showDirName)) {
+                deleteStaleOutputs(previousManifest.get(showDirName), null);
+            }
+        }
+
+        // The manifest is saved regardless of failures so that successful shows can be skipped next
+        // time.
+        try {
+            manifest.save(manifestFile);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("IO error creating `%s`", manifestFile), e);
+        }
+
+        if (!failures.isEmpty()) {
+            RuntimeException exception = new RuntimeException(
+                String.format("Error processing %d show(s): %s", failures.size(), failedShows)
+            );
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+
+        // Save the properties of all the shows as the precompiled show registry.
+        saveShowRegistry(showBlockNames);
+    }
+
+    /**
+     * Deletes the resources generated for a show that weren't generated again (e.g. when a show is
+     * made smaller). Texture files that follow the show's tile naming but aren't in the manifest
+     * (left behind before the manifest existed) are also deleted.
+     *
+     * @param previous the show's previous manifest entry (may be null)
+     * @param current  the show's new manifest entry (null if the show has been removed)
+     */
+    private void deleteStaleOutputs(GenerationManifest.ShowEntry previous, GenerationManifest.ShowEntry current) {
+        Set<String> stale = new TreeSet<>();
+        if (previous != null) {
+            stale.addAll(previous.getOutputs().keySet());
+        }
+        if (current != null) {
+            Pattern tileFilePattern = Pattern.compile(String.format(
+                "%s_\\d+_\\d+\\.%s(\\.mcmeta)?", Pattern.quote(current.getBlockName()), FORMAT_TYPE
+            ));
+            String[] textureFiles = Objects.requireNonNull(texturesDir.list());
+            for (String textureFile: textureFiles) {
+                if (tileFilePattern.matcher(textureFile).matches()) {
+                    stale.add(assetsDir.toPath().relativize(new File(texturesDir, textureFile).toPath())
+                            .toString().replace(File.separatorChar, '/'));
                 }
             }
+            stale.removeAll(current.getOutputs().keySet());
+        }
+        for (String output: stale) {
+            File file = new File(assetsDir, output);
+            if (file.delete()) {
+                LOGGER.info("Deleted stale resource: {}", output);
+            }
         }
+    }
 
-        // Save the list of show block names as an index resource file.
-        saveShowIndex(showBlockNames);
+    /**
+     * Estimates the memory needed to process a show. All the show's texture images (for every tier)
+     * are held at the same time along with one decoded source frame (or animation canvas) and it's
+     * scaled copies. A streamed show has no texture images and is only scaled to the base tier, its
+     * container writer holds a few frame records instead. Only the frame headers are read.
+     *
+     * @param showDir the show sub-folder
+     * @return the estimated footprint in bytes
+     * @throws IOException possible error when reading resources
+     */
+    private long estimateFootprint(File showDir) throws IOException {
+        ShowProperties props = readProperties(showDir);
+        List<ShowScalingContext> contexts = props.isStreamed()
+            ? List.of(new ShowScalingContext(props)) : createContexts(props);
+        List<FrameHeader> frames = FrameSource.forShow(showDir, props.getFrameTime()).headers();
+        long largestSource = 0;
+        long largestScaled = 0;
+        for (FrameHeader frame: frames) {
+            largestSource = Math.max(largestSource, (long) frame.width() * frame.height());
+            long scaled = 0;
+            for (ShowScalingContext context: contexts) {
+                Dimension scale = context.getScaleForImage(frame.width(), frame.height());
+                scaled += (long) scale.width * scale.height;
+            }
+            largestScaled = Math.max(largestScaled, scaled);
+        }
+        long images = (largestSource + largestScaled) * BYTES_PER_PIXEL;
+        if (props.isStreamed()) {
+            // the frame being written, the previous frame, it's delta and the deflated record
+            long frameLength = (long) contexts.get(0).positions().size() * ShowProperties.PIXELS_PER_BLOCK
+                * ShowProperties.PIXELS_PER_BLOCK * ShowContainer.BYTES_PER_PIXEL;
+            return images + CONTAINER_RECORDS * frameLength;
+        }
+        long textures = 0;
+        for (ShowScalingContext context: contexts) {
+            long pixelsPerTile = (long) context.getPixelsPerBlock() * context.getPixelsPerBlock();
+            for (Point ignored: context.positions()) {
+                textures += pixelsPerTile * frames.size();
+            }
+        }
+        return images + textures * BYTES_PER_PIXEL;
     }
 
     /**
-     * Outputs the animated show textures for the images in a given show sub-folder.
+     * The state of a show's textures at one resolution tier.
+     */
+    private static class Tier {
+
+        /**
+         * The tier's scaling context.
+         */
+        final ShowScalingContext context;
+
+        /**
+         * The texture images for each tile position.
+         */
+        final List<BufferedImage> outputImages = new ArrayList<>();
+
+        /**
+         * Copies the scaled frames into `outputImages`.
+         */
+        TileBlitter blitter;
+
+        Tier(ShowScalingContext context) {
+            this.context = context;
+        }
+
+        int pixelsPerBlock() {
+            return context.getPixelsPerBlock();
+        }
+    }
+
+    /**
+     * Outputs the animated show textures for the frames in a given show sub-folder (a set of image
+     * files or a single animated GIF/APNG) at each resolution tier. The frames are streamed: a
+     * header-only pass finds the crop length of the secondary axis after which each frame is
+     * decoded once, scaled for each tier and drawn into all the tier's texture images before the
+     * next frame is read.
      * 
      * @param showDir the show sub-folder being processed
-     * @return the processed show's block name
-     * @throws IOException possible error when reading/writing reosurces
+     * @return the processed show's block name and the resources written
+     * @throws IOException possible error when reading/writing resources
      */
-    public String processShow(File showDir) throws IOException {
+    public ShowOutputs processShow(File showDir) throws IOException {
 
-        // read the show's properties
-        File metadata = new File(showDir.getAbsolutePath(), METADATA_FILENAME);
-        ShowProperties props = ShowProperties.create(new FileInputStream(metadata));
-        // additional validation
-        if (props.getBlocksX() != 0 && props.getBlocksY() != 0) {
-            throw new IllegalArgumentException("Only blocksX or blocksY can be set");
+        ShowProperties props = readProperties(showDir);
+        if (props.isStreamed()) {
+            return processContainerShow(showDir, props);
+        }
+        // initialise the scaling context of each tier (the first is the base tier)
+        List<Tier> tiers = new ArrayList<>();
+        for (ShowScalingContext context: createContexts(props)) {
+            tiers.add(new Tier(context));
         }
-        // initialise the scaling context
-        ShowScalingContext context = new ShowScalingContext(props);
 
-        // scale each show image and keep in a list
-        List<BufferedImage> frameImages = new ArrayList<>();
-        File[] frames = Objects.requireNonNull(showDir.listFiles());
-        Arrays.sort(frames);
-        for (File frame: frames) {
-            if (frame.isFile()) {
-                BufferedImage sourceImage = ImageIO.read(frame);
-                if (sourceImage != null) {
-                    frameImages.add(scaleImage(context, sourceImage));
+        // read the frame headers (this updates the contexts' crop lengths)
+        FrameSource source = FrameSource.forShow(showDir, props.getFrameTime());
+        List<FrameHeader> frames = source.headers();
+        for (Tier tier: tiers) {
+            scanFrames(frames, tier.context);
+        }
+
+        // for each show tile position create an empty animated texture image that is 1 block wide
+        // and `n` blocks high where `n` is the number of animation frames. The tile positions are
+        // the same for every tier.
+        TileIterableIterator tiles = tiers.get(0).context.positions();
+        List<Point> positions = new ArrayList<>();
+        for (Tier tier: tiers) {
+            int pixelsPerBlock = tier.pixelsPerBlock();
+            for (Point position: tier.context.positions()) {
+                if (tier == tiers.get(0)) {
+                    positions.add(position);
                 }
+                tier.outputImages.add(new BufferedImage(
+                        pixelsPerBlock, pixelsPerBlock * frames.size(), BufferedImage.TYPE_INT_RGB
+                ));
             }
+            tier.blitter = new TileBlitter(positions, tier.outputImages, pixelsPerBlock, options.getDedupTolerance());
         }
 
-        // for each show tile position ..
-        for (Point position: context.positions()) {
+        // for each frame image crop every tile from that image and copy it into the tile's
+        // texture image (collapsing runs of matching tile frames). The base tier's frames are also
+        // written to the show's container if one was asked for.
+        List<File> files = new ArrayList<>();
+        File containerFile = containerFile(props);
+        try (ShowContainerWriter container = options.getContainerEncoding() == null ? null
+                : openContainer(containerFile, props, frames, options.getContainerEncoding())) {
+            source.forEach((sourceImage, frame) -> {
+                for (Tier tier: tiers) {
+                    BufferedImage scaledImage = scaleImage(tier.context, sourceImage);
+                    // the offset for cropping along the secondary axis.
+                    Point offset = tier.context.getOffset(scaledImage.getWidth(), scaledImage.getHeight());
+                    tier.blitter.blit(scaledImage, offset, frame.time());
+                    if (container != null && tier == tiers.get(0)) {
+                        container.write(scaledImage, offset);
+                    }
+                }
+            });
+            if (container != null) {
+                logContainer(props, frames.size(), container);
+            }
+        }
+        if (options.getContainerEncoding() != null) {
+            files.add(containerFile);
+        }
 
-            // .. create an empty animated texture image that is 1 block wide and `n` blocks high
-            // where `n` is the number of animation frames.
-            BufferedImage outputImage = new BufferedImage(
-                    ShowScalingContext.PIXELS_PER_BLOCK,
-                    ShowScalingContext.PIXELS_PER_BLOCK * frameImages.size(),
-                    BufferedImage.TYPE_INT_RGB
-            );
-            // for each frame image crop `position` tile from that image and draw it into the
-            // texture image
-            int i = 0;
-            for (BufferedImage scaledImage: frameImages) {
-                int textureYPos = i * ShowScalingContext.PIXELS_PER_BLOCK;
-                // the offset for cropping along the secondary axis.
-                Point offset = context.getOffset(scaledImage.getWidth(), scaledImage.getHeight());
-                drawFrameTile(scaledImage, offset, position, textureYPos, outputImage);
-                i ++;
+        // positions whose textures are identical (in every tier, as the models are shared) share
+        // the first position's texture
+        int[] textureOwners = tiers.get(0).blitter.findSharedTextures();
+        for (Tier tier: tiers.subList(1, tiers.size())) {
+            int[] tierOwners = tier.blitter.findSharedTextures();
+            for (int p = 0; p < textureOwners.length; p ++) {
+                if (tierOwners[p] != textureOwners[p]) {
+                    textureOwners[p] = p;
+                }
+            }
+        }
+        for (int p = 0; p < positions.size(); p ++) {
+            if (textureOwners[p] != p) {
+                Point position = positions.get(p);
+                Point owner = positions.get(textureOwners[p]);
+                props.setSharedTexture(position.x, position.y, props.getTileTexture(owner.x, owner.y));
             }
+        }
 
-            // write the animated texture image and associated metadata to the screen block
-            // (the tile position is also encoded in the file name)
-            String outputFileName = String.format(
-                "%s_%d_%d", props.getBlockName(), position.x, position.y
-            );
-            outputImage(outputFileName, outputImage);
-            outputMetadata(outputFileName, props);
+        for (Tier tier: tiers) {
+            files.addAll(outputTextures(props, tier, tier == tiers.get(0), tiles, textureOwners));
+        }
+        long textureCount = Arrays.stream(textureOwners).distinct().count();
+        if (textureCount < positions.size()) {
+            LOGGER.info("{}: {} tile positions share {} textures", props.getBlockName(), positions.size(), textureCount);
         }
 
         // Save the updated `ShowProperties` as a resource (to be available in-game, etc)
-        String metadataResourceName = String.format("%s.json", props.getBlockName());
-        props.save(new File(assetsDir, metadataResourceName));
+        File metadataResource = new File(assetsDir, String.format("%s.json", props.getBlockName()));
+        props.save(metadataResource);
+        files.add(metadataResource);
 
-        return props.getBlockName();
+        return new ShowOutputs(props.getBlockName(), files);
     }
 
     /**
-     * Scales the frame image using the scaling context.
-     * 
-     * @param context the show's scaling context
-     * @param image   the frame image to scale
-     * @return a buffered scaled frame image
+     * Writes the animated texture image and associated metadata of each tile position (that doesn't
+     * share another position's texture) at a tier. The tile positions are encoded in parallel.
+     *
+     * @param props         the show's properties
+     * @param tier          the tier
+     * @param baseTier      whether the tier is the base tier
+     * @param tiles         the show's tile positions
+     * @param textureOwners for each tile position the index of the position whose texture it uses
+     * @return the files written (in tile position order)
+     * @throws IOException possible error when writing the resources
      */
-    private static BufferedImage scaleImage(ShowScalingContext context, BufferedImage image) {
-        Dimension scaleForImage = context.getScaleForImage(image.getWidth(), image.getHeight());
-        Image scaledImage = image.getScaledInstance(
-            scaleForImage.width, scaleForImage.height, Image.SCALE_REPLICATE
+    private List<File> outputTextures(
+        ShowProperties props, Tier tier, boolean baseTier, TileIterableIterator tiles, int[] textureOwners
+    ) throws IOException {
+        File tierTexturesDir = texturesDir(tier.pixelsPerBlock());
+        File[][] tileFiles = new File[tiles.size()][];
+        try {
+            tiles.parallelStream().forEach(position -> {
+                int p = tiles.indexOf(position);
+                if (textureOwners[p] != p) {
+                    return;
+                }
+                // write the animated texture image and associated metadata to the screen block
+                // (the tile position is also encoded in the file name). A tile with a single frame
+                // is written as a plain (non-animated) texture. A tier's `mcmeta` files must
+                // always be written so that they replace the base tier's.
+                String outputFileName = props.getTileTexture(position.x, position.y);
+                int frameCount = tier.blitter.getFrameCount(p);
+                BufferedImage outputImage = tier.outputImages.get(p).getSubimage(
+                    0, 0, tier.pixelsPerBlock(), tier.pixelsPerBlock() * frameCount
+                );
+                try {
+                    File imageFile = outputImage(tierTexturesDir, outputFileName, outputImage);
+                    if (frameCount > 1 || !baseTier) {
+                        String mcmeta = ShowProperties.createMcmeta(
+                            props.getFrameTime(), tier.blitter.getFrameTimes(p)
+                        );
+                        tileFiles[p] = new File[] {
+                            imageFile, outputMetadata(tierTexturesDir, outputFileName, mcmeta)
+                        };
+                    } else {
+                        tileFiles[p] = new File[] {imageFile};
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        List<File> files = new ArrayList<>();
+        for (File[] written: tileFiles) {
+            if (written != null) {
+                files.addAll(Arrays.asList(written));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Outputs the frames of a streamed show. Each frame is scaled and cropped (as for the textures
+     * of other shows) and written to the show's container. The container is delta encoded (to save
+     * space) unless the show (or the generator's options) gives another encoding, e.g. raw for a
+     * show with many tiles that changes most of them every frame (so a frame change is just a
+     * copy). These shows are only written at the base tier.
+     *
+     * @param showDir the show sub-folder being processed
+     * @param props   the show's properties
+     * @return the processed show's block name and the resources written
+     * @throws IOException possible error when reading/writing resources
+     */
+    private ShowOutputs processContainerShow(File showDir, ShowProperties props) throws IOException {
+        ShowScalingContext context = new ShowScalingContext(props);
+        FrameSource source = FrameSource.forShow(showDir, props.getFrameTime());
+        List<FrameHeader> frames = source.headers();
+        scanFrames(frames, context);
+        // sets the undefined axis (the tile positions aren't needed)
+        context.positions();
+
+        ContainerEncoding encoding = props.getContainerEncoding();
+        if (encoding == null) {
+            encoding = options.getContainerEncoding() != null
+                ? options.getContainerEncoding() : ContainerEncoding.DELTA;
+        }
+        File containerFile = containerFile(props);
+        try (ShowContainerWriter container = openContainer(containerFile, props, frames, encoding)) {
+            source.forEach((sourceImage, frame) -> {
+                BufferedImage scaledImage = scaleImage(context, sourceImage);
+                container.write(scaledImage, context.getOffset(scaledImage.getWidth(), scaledImage.getHeight()));
+            });
+            logContainer(props, frames.size(), container);
+        }
+
+        List<File> files = new ArrayList<>();
+        files.add(containerFile);
+        File metadataResource = new File(assetsDir, String.format("%s.json", props.getBlockName()));
+        props.save(metadataResource);
+        files.add(metadataResource);
+
+        return new ShowOutputs(props.getBlockName(), files);
+    }
+
+    /**
+     * @param props the show's properties
+     * @return the show's container file (in the streams folder)
+     */
+    private File containerFile(ShowProperties props) {
+        return Paths.get(
+            assetsDir.getAbsolutePath(), ShowProperties.STREAMS_DIR,
+            String.format("%s.%s", props.getBlockName(), ShowContainer.EXTENSION)
+        ).toFile();
+    }
+
+    /**
+     * Reports the size of a show's container and how well it compressed the frames.
+     *
+     * @param props      the show's properties
+     * @param frameCount the number of frames written
+     * @param container  the container writer (before it is closed)
+     * @throws IOException possible error when reading the container's size
+     */
+    private static void logContainer(
+        ShowProperties props, int frameCount, ShowContainerWriter container
+    ) throws IOException {
+        LOGGER.info(
+            "{}: {} frames in container as {} records ({} bytes, compression ratio {}, {}% of tiles stored)",
+            props.getBlockName(), frameCount, container.getRecordCount(), container.size(),
+            String.format("%.1f", container.getCompressionRatio()),
+            String.format("%.1f", container.getTilesWrittenFraction() * 100)
         );
-        BufferedImage scaledBufferedImage = new BufferedImage(
-            scaledImage.getWidth(null), scaledImage.getHeight(null),
-            BufferedImage.TYPE_INT_RGB
+    }
+
+    /**
+     * Opens a container for the base tier frames of a show (once the show's tile layout is known).
+     *
+     * @param file     the container file
+     * @param props    the show's properties
+     * @param frames   the show's frame headers
+     * @param encoding how the frame records are stored
+     * @return the container writer
+     * @throws IOException possible error when creating the file
+     */
+    private ShowContainerWriter openContainer(
+        File file, ShowProperties props, List<FrameHeader> frames, ContainerEncoding encoding
+    ) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        int[] frameTimes = frames.stream().mapToInt(FrameHeader::time).toArray();
+        return new ShowContainerWriter(
+            file, encoding, options.getKeyframeInterval(), ShowProperties.PIXELS_PER_BLOCK,
+            props.getBlocksX(), props.getBlocksY(), frameTimes
         );
-        scaledBufferedImage.getGraphics().drawImage(scaledImage, 0, 0, null);
-        return scaledBufferedImage;
     }
 
     /**
-     * Crops the tile from the image frame and draws it into animated texture image at
-     * `textureYPos`.
+     * Creates the scaling contexts of all the resolution tiers (these must all be created before
+     * any of their tile positions are iterated).
+     *
+     * @param props the show's properties
+     * @return the contexts with the base tier first
+     */
+    private List<ShowScalingContext> createContexts(ShowProperties props) {
+        List<ShowScalingContext> contexts = new ArrayList<>();
+        for (int pixelsPerBlock: options.getTiers()) {
+            contexts.add(new ShowScalingContext(props, pixelsPerBlock));
+        }
+        return contexts;
+    }
+
+    /**
+     * @param pixelsPerBlock a resolution tier
+     * @return the folder the tier's block textures are written to (the mod's own textures for the
+     * base tier, otherwise the tier's resource pack)
+     */
+    private File texturesDir(int pixelsPerBlock) {
+        if (pixelsPerBlock == ShowProperties.PIXELS_PER_BLOCK) {
+            return texturesDir;
+        }
+        return Paths.get(
+                tierPacksDir.getAbsolutePath(), String.format(ShowProperties.TIER_PACK_FORMAT, pixelsPerBlock),
+                "assets", assetsDir.getName(), "textures", "block"
+        ).toFile();
+    }
+
+    /**
+     * Writes the `pack.mcmeta` of a tier's resource pack.
+     *
+     * @param pixelsPerBlock a resolution tier
+     * @throws IOException possible error when writing file
+     */
+    private void saveTierPackMetadata(int pixelsPerBlock) throws IOException {
+        File packDir = new File(tierPacksDir, String.format(ShowProperties.TIER_PACK_FORMAT, pixelsPerBlock));
+        try (JsonWriter json = ShowProperties.GSON.newJsonWriter(new FileWriter(new File(packDir, "pack.mcmeta")))) {
+            json.beginObject();
+            json.name("pack").beginObject();
+            json.name("description").value(String.format("Cinema Show screens at %d pixels per block", pixelsPerBlock));
+            json.name("pack_format").value(PACK_FORMAT);
+            json.endObject();
+            json.endObject();
+        }
+    }
+
+    /**
+     * Reads and validates the show's properties.
+     *
+     * @param showDir the show sub-folder
+     * @return the show's properties
+     * @throws IOException possible error when reading the properties
+     */
+    private static ShowProperties readProperties(File showDir) throws IOException {
+        File metadata = new File(showDir.getAbsolutePath(), METADATA_FILENAME);
+        ShowProperties props;
+        try (InputStream input = new FileInputStream(metadata)) {
+            props = ShowProperties.create(input);
+        }
+        // additional validation
+        if (props.getBlocksX() != 0 && props.getBlocksY() != 0) {
+            throw new IllegalArgumentException("Only blocksX or blocksY can be set");
+        }
+        return props;
+    }
+
+    /**
+     * Updates the scaling context with each frame's scale.
+     *
+     * @param frames  the show's frame headers
+     * @param context the show's scaling context
+     */
+    private static void scanFrames(List<FrameHeader> frames, ShowScalingContext context) {
+        for (FrameHeader frame: frames) {
+            context.getScaleForImage(frame.width(), frame.height());
+        }
+    }
+
+    /**
+     * Scales the frame image using the scaling context.
      * 
-     * @param frameImage  scaled frame image
-     * @param offset      offset into the frame image of the bottom left tile
-     * @param position    tile position
-     * @param textureYPos y position of the tile in the animated texture image
-     * @param outputImage animated texture image
+     * @param context the show's scaling context
+     * @param image   the frame image to scale
+     * @return a buffered scaled frame image
      */
-    private static void drawFrameTile(
-        BufferedImage frameImage, Point offset, Point position, int textureYPos, 
-        BufferedImage outputImage
-    ) {
-        BufferedImage tile = frameImage.getSubimage(
-                offset.x + position.x * ShowScalingContext.PIXELS_PER_BLOCK,
-                offset.y + position.y * ShowScalingContext.PIXELS_PER_BLOCK,
-                ShowScalingContext.PIXELS_PER_BLOCK, ShowScalingContext.PIXELS_PER_BLOCK
-        );
-        outputImage.getGraphics().drawImage(tile, 0, textureYPos, null);
+    private BufferedImage scaleImage(ShowScalingContext context, BufferedImage image) {
+        Dimension scaleForImage = context.getScaleForImage(image.getWidth(), image.getHeight());
+        return scaler.scale(image, scaleForImage.width, scaleForImage.height);
     }
 
     /**
      * Writes the animated texture image to file.
      * 
+     * @param dir the folder of the block texture resources
      * @param outputFileName the name of the block texture resource
      * @param outputImage animated texture image
+     * @return the file written
      * @throws IOException possible error when writing file
      */
-    private void outputImage(String outputFileName, BufferedImage outputImage) throws IOException {
-        File imageFile = new File(texturesDir, String.format("%s.%s", outputFileName, FORMAT_TYPE));
-        ImageIO.write(outputImage, FORMAT_TYPE, imageFile);
+    private File outputImage(File dir, String outputFileName, BufferedImage outputImage) throws IOException {
+        File imageFile = new File(dir, String.format("%s.%s", outputFileName, FORMAT_TYPE));
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(imageFile))) {
+            pngEncoder.write(outputImage, output);
+        }
+        return imageFile;
     }
 
     /**
-     * Writes a "mcmeta" defining the frame time in ticks as a json resource file.
+     * Writes a "mcmeta" defining the frame times in ticks as a json resource file.
      * 
+     * @param dir the folder of the block texture resources
      * @param outputFileName the name of the block texture resource
-     * @param props the show's properties
+     * @param mcmeta the texture's animation metadata
+     * @return the file written
      * @throws IOException possible error when writing file
      */
-    private void outputMetadata(String outputFileName, ShowProperties props) throws IOException {
+    private File outputMetadata(File dir, String outputFileName, String mcmeta) throws IOException {
         File metadataFile = new File(
-                texturesDir, String.format("%s.%s.mcmeta", outputFileName, FORMAT_TYPE)
+                dir, String.format("%s.%s.mcmeta", outputFileName, FORMAT_TYPE)
         );
         try (Writer writer = new FileWriter(metadataFile)) {
-            writer.write(props.getMcmeta());
+            writer.write(mcmeta);
         }
+        return metadataFile;
     }
 
     /**
-     * Saves the list of all the show block names as a JSON resource file to the root of the mod's assets resource
-     * folders.
-     * 
-     * @param showBlockNames a list of all the show block names
+     * Saves the precompiled show registry resource file from the properties resources of the shows
+     * (including those skipped in this run).
+     *
+     * @param showBlockNames the block names of all the shows in index order
      */
-    private void saveShowIndex(final List<String> showBlockNames) {
-        try {
-            JsonWriter json = ShowProperties.GSON.newJsonWriter(
-                new FileWriter(new File(assetsDir, ShowProperties.SHOWINDEX_FILENAME))
-            );
-            json.beginArray();
-            for (String showSlug: showBlockNames) {
-                json.value(showSlug);
+    private void saveShowRegistry(final List<String> showBlockNames) {
+        List<ShowProperties> shows = new ArrayList<>();
+        for (String showSlug: showBlockNames) {
+            File metadataResource = new File(assetsDir, String.format("%s.json", showSlug));
+            try (InputStream input = new FileInputStream(metadataResource)) {
+                shows.add(ShowProperties.create(input));
+            } catch (IOException e) {
+                throw new RuntimeException(String.format("IO error reading `%s`", metadataResource), e);
             }
-            json.endArray();
-            json.close();
+        }
+        File registryFile = new File(assetsDir, ShowRegistry.REGISTRY_FILENAME);
+        try (OutputStream output = new FileOutputStream(registryFile)) {
+            ShowRegistry.write(output, shows);
         } catch (IOException e) {
-            throw new RuntimeException(String.format("IO error creating `%s`", ShowProperties.SHOWINDEX_FILENAME), e);
+            throw new RuntimeException(String.format("IO error creating `%s`", ShowRegistry.REGISTRY_FILENAME), e);
         }
     }
 
@@ -253,7 +774,9 @@ public class GenerateTextures {
             args[0], args[1]
         );
 
-        GenerateTextures generateTextures = new GenerateTextures(args[0], args[1]);
+        GenerateTextures generateTextures = new GenerateTextures(
+            args[0], args[1], GeneratorOptions.parse(Arrays.copyOfRange(args, 2, args.length))
+        );
 
         try {
             generateTextures.run();
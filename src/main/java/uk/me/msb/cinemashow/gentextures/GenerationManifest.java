@@ -0,0 +1,213 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * A record of the content hashes of each show's inputs (the files in it's show sub-folder) and of
+ * the resources generated from them. It is saved next to the show index and used on the next run
+ * to skip shows whose inputs haven't changed and whose outputs are still intact.
+ */
+public class GenerationManifest {
+
+    /**
+     * The name of the manifest file (saved in the root of the mod's assets).
+     */
+    public static final String MANIFEST_FILENAME = "manifest.json";
+
+    /**
+     * Bumped when the generator's output changes for the same inputs or the settings included in the
+     * input hash change (forces a full regeneration). Version 2 added the tiers, container encoding,
+     * keyframe interval, scaler and dedup tolerance settings. Version 3 collapses runs of identical
+     * frames in show containers.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * The manifest entries keyed on the show sub-folder name.
+     */
+    private final Map<String, ShowEntry> shows = new TreeMap<>();
+
+    /**
+     * The manifest entry for a single show.
+     */
+    public static class ShowEntry {
+
+        /**
+         * The hash of the show sub-folder's files and the generator's settings.
+         */
+        private final String inputHash;
+
+        /**
+         * The show's block name.
+         */
+        private final String blockName;
+
+        /**
+         * The hashes of the generated resources keyed on their path relative to the assets folder.
+         */
+        private final Map<String, String> outputs;
+
+        public ShowEntry(String inputHash, String blockName, Map<String, String> outputs) {
+            this.inputHash = inputHash;
+            this.blockName = blockName;
+            this.outputs = outputs;
+        }
+
+        public String getInputHash() {
+            return inputHash;
+        }
+
+        public String getBlockName() {
+            return blockName;
+        }
+
+        public Map<String, String> getOutputs() {
+            return outputs;
+        }
+
+        /**
+         * @param assetsDir the root folder of mod's assets
+         * @return whether all the generated resources exist and are unchanged
+         * @throws IOException possible error when reading the resources
+         */
+        public boolean isIntact(File assetsDir) throws IOException {
+            for (Map.Entry<String, String> output: outputs.entrySet()) {
+                File file = new File(assetsDir, output.getKey());
+                if (!file.isFile() || !hashFile(file).equals(output.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @param showDirName the show sub-folder name
+     * @return the show's entry or null if there isn't one
+     */
+    public ShowEntry get(String showDirName) {
+        return shows.get(showDirName);
+    }
+
+    public void put(String showDirName, ShowEntry entry) {
+        shows.put(showDirName, entry);
+    }
+
+    /**
+     * @return the show sub-folder names of all the entries
+     */
+    public Set<String> showDirNames() {
+        return shows.keySet();
+    }
+
+    /**
+     * Creates an entry for a show that has just been generated by hashing it's outputs.
+     *
+     * @param inputHash the hash of the show's inputs
+     * @param blockName the show's block name
+     * @param outputs   the generated resources
+     * @param assetsDir the root folder of mod's assets
+     * @return the new entry
+     * @throws IOException possible error when reading the resources
+     */
+    public static ShowEntry createEntry(
+        String inputHash, String blockName, List<File> outputs, File assetsDir
+    ) throws IOException {
+        Map<String, String> hashes = new TreeMap<>();
+        for (File output: outputs) {
+            String relativePath = assetsDir.toPath().relativize(output.toPath()).toString();
+            hashes.put(relativePath.replace(File.separatorChar, '/'), hashFile(output));
+        }
+        return new ShowEntry(inputHash, blockName, hashes);
+    }
+
+    /**
+     * Hashes the names and contents of all the files in the show sub-folder (in name order)
+     * along with the generator's settings that affect the output.
+     *
+     * @param showDir  the show sub-folder
+     * @param settings a description of the generator's settings that affect the output
+     * @return the hash (hex encoded)
+     * @throws IOException possible error when reading the files
+     */
+    public static String hashInputs(File showDir, String settings) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(showDir.toPath(), Files::isRegularFile)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        MessageDigest digest = newDigest();
+        digest.update(String.format("%d|%s", VERSION, settings).getBytes(StandardCharsets.UTF_8));
+        for (Path file: files) {
+            digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            update(digest, file.toFile());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param file a file
+     * @return the hash of the file's contents (hex encoded)
+     * @throws IOException possible error when reading the file
+     */
+    public static String hashFile(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, file);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, File file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = new FileInputStream(file)) {
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+
+    /**
+     * Reads a manifest saved by a previous run.
+     *
+     * @param manifestFile the manifest file
+     * @return the manifest (empty if the file doesn't exist)
+     * @throws IOException possible error when reading the file
+     */
+    public static GenerationManifest load(File manifestFile) throws IOException {
+        if (!manifestFile.isFile()) {
+            return new GenerationManifest();
+        }
+        try (Reader reader = new FileReader(manifestFile, StandardCharsets.UTF_8)) {
+            GenerationManifest manifest = ShowProperties.GSON.fromJson(reader, GenerationManifest.class);
+            return manifest == null ? new GenerationManifest() : manifest;
+        }
+    }
+
+    /**
+     * @param manifestFile the manifest file
+     * @throws IOException possible error when writing the file
+     */
+    public void save(File manifestFile) throws IOException {
+        try (Writer writer = new FileWriter(manifestFile, StandardCharsets.UTF_8)) {
+            ShowProperties.GSON.toJson(this, writer);
+        }
+    }
+}
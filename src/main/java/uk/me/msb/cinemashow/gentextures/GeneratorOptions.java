@@ -0,0 +1,190 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import uk.me.msb.cinemashow.ContainerEncoding;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.util.Arrays;
+
+/**
+ * The optional settings for a `GenerateTextures` run. These are given as `--name=value` arguments
+ * following the source and destination folders.
+ */
+public class GeneratorOptions {
+
+    /**
+     * The fraction of the JVM's maximum heap that is given to the show scheduler by default.
+     */
+    private static final double DEFAULT_MEMORY_FRACTION = 0.75;
+
+    /**
+     * The number of threads shared by the shows being processed and the parallel steps within
+     * them (the most shows processed at the same time).
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The estimated number of bytes all the shows being processed at the same time can use.
+     */
+    private long memoryBudget = (long) (Runtime.getRuntime().maxMemory() * DEFAULT_MEMORY_FRACTION);
+
+    /**
+     * The speed/size trade-off used when writing the texture images.
+     */
+    private PngMode pngMode = PngMode.BALANCED;
+
+    /**
+     * The largest colour channel difference for consecutive frames of a tile to be collapsed into
+     * a single texture frame (0 only collapses identical frames).
+     */
+    private int dedupTolerance = 0;
+
+    /**
+     * The resampling kernel used to scale the frames.
+     */
+    private ScaleFilter scaleFilter = ScaleFilter.NEAREST;
+
+    /**
+     * The resolution tiers (pixels per block) the textures are generated at. The first is always
+     * `ShowProperties.PIXELS_PER_BLOCK` (the textures built into the mod), the others are
+     * written to tier resource packs.
+     */
+    private int[] tiers = {ShowProperties.PIXELS_PER_BLOCK};
+
+    /**
+     * The encoding of the show containers written for every show (null if they aren't written).
+     * Streamed shows are always written as containers (with the show's own `container`
+     * encoding if it has one, otherwise this or delta encoded if this isn't set).
+     */
+    private ContainerEncoding containerEncoding;
+
+    /**
+     * The number of frames from one keyframe to the next in delta encoded containers (the most
+     * deltas applied when seeking).
+     */
+    private int keyframeInterval = 32;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public PngMode getPngMode() {
+        return pngMode;
+    }
+
+    public int getDedupTolerance() {
+        return dedupTolerance;
+    }
+
+    public ScaleFilter getScaleFilter() {
+        return scaleFilter;
+    }
+
+    public ContainerEncoding getContainerEncoding() {
+        return containerEncoding;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public int[] getTiers() {
+        return tiers.clone();
+    }
+
+    /**
+     * @return a description of the settings that change the generated resources (a change in these
+     * means that all shows have to be generated again)
+     */
+    public String describeOutputSettings() {
+        return String.format(
+            "png=%s dedup-tolerance=%d scaler=%s tiers=%s container=%s keyframe-interval=%d",
+            pngMode, dedupTolerance, scaleFilter, Arrays.toString(tiers), containerEncoding, keyframeInterval
+        );
+    }
+
+    /**
+     * Parses the optional arguments given to `GenerateTextures`.
+     *
+     * @param args the arguments in the form `--name=value`
+     * @return the parsed options
+     */
+    public static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+        for (String arg: args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format("Badly formed option: %s", arg));
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "threads" -> options.threads = parsePositive(name, value);
+                // given in MB
+                case "memory-budget" -> options.memoryBudget = parsePositive(name, value) * 1024L * 1024L;
+                case "png" -> options.pngMode = PngMode.valueOf(value.toUpperCase());
+                case "dedup-tolerance" -> options.dedupTolerance = parseRange(name, value, 0, 255);
+                case "scaler" -> options.scaleFilter = ScaleFilter.valueOf(value.toUpperCase());
+                case "tiers" -> options.tiers = parseTiers(name, value);
+                case "container" -> options.containerEncoding = ContainerEncoding.valueOf(value.toUpperCase());
+                case "keyframe-interval" -> options.keyframeInterval = parsePositive(name, value);
+                default -> throw new IllegalArgumentException(String.format("Unknown option: %s", name));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @param name  the option's name (for the error message)
+     * @param value the option's value
+     * @return the value as a positive integer
+     */
+    private static int parsePositive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(String.format("%s should be greater than zero", name));
+        }
+        return parsed;
+    }
+
+    /**
+     * @param name  the option's name (for the error message)
+     * @param value the option's value
+     * @param min   the smallest allowed value
+     * @param max   the largest allowed value
+     * @return the value as an integer in the range
+     */
+    private static int parseRange(String name, String value, int min, int max) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(String.format("%s should be between %d and %d", name, min, max));
+        }
+        return parsed;
+    }
+
+    /**
+     * @param name  the option's name (for the error message)
+     * @param value a comma separated list of pixels per block
+     * @return the base tier followed by the other given tiers in ascending order
+     */
+    private static int[] parseTiers(String name, String value) {
+        int[] extra = Arrays.stream(value.split(","))
+            .mapToInt(tier -> parseRange(name, tier.trim(), ShowProperties.MIN_TIER, ShowProperties.MAX_TIER))
+            .filter(tier -> tier != ShowProperties.PIXELS_PER_BLOCK)
+            .distinct()
+            .sorted()
+            .toArray();
+        for (int tier: extra) {
+            if (Integer.bitCount(tier) != 1) {
+                throw new IllegalArgumentException(String.format("%s should be powers of two", name));
+            }
+        }
+        int[] tiers = new int[extra.length + 1];
+        tiers[0] = ShowProperties.PIXELS_PER_BLOCK;
+        System.arraycopy(extra, 0, tiers, 1, extra.length);
+        return tiers;
+    }
+}
@@ -0,0 +1,221 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A frame source for a show defined by a single animated GIF. The GIF's frames are decoded one at a
+ * time and composited onto a canvas (according to each frame's disposal method) and the GIF's frame
+ * delays are used as the frame times.
+ */
+public class GifFrameSource implements FrameSource {
+
+    private static final String STREAM_METADATA_FORMAT = "javax_imageio_gif_stream_1.0";
+
+    private static final String IMAGE_METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+
+    /**
+     * GIF frame delays are given in hundredths of a second.
+     */
+    private static final double SECONDS_PER_DELAY_UNIT = 0.01;
+
+    /**
+     * The GIF file.
+     */
+    private final File file;
+
+    /**
+     * The show's default frame time in ticks (used for frames without a delay).
+     */
+    private final int frameTime;
+
+    /**
+     * The frame headers (read on demand).
+     */
+    private List<FrameHeader> headers;
+
+    public GifFrameSource(File file, int frameTime) {
+        this.file = file;
+        this.frameTime = frameTime;
+    }
+
+    /**
+     * @param file a possible GIF file
+     * @return whether the file is a GIF with more than one frame
+     * @throws IOException possible error when reading the file
+     */
+    public static boolean isAnimatedGif(File file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = gifReader(input);
+            if (reader == null) {
+                return false;
+            }
+            try {
+                reader.setInput(input, false, true);
+                return reader.getNumImages(true) > 1;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * The frame headers are read from the GIF's metadata which doesn't require decoding the frames.
+     * All frames have the GIF's logical screen size.
+     */
+    @Override
+    public List<FrameHeader> headers() throws IOException {
+        if (headers == null) {
+            List<FrameHeader> frames = new ArrayList<>();
+            try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+                ImageReader reader = gifReader(input);
+                if (reader == null) {
+                    throw new IOException(String.format("Not a GIF: %s", file));
+                }
+                try {
+                    reader.setInput(input, false, false);
+                    Dimension size = screenSize(reader);
+                    int count = reader.getNumImages(true);
+                    for (int i = 0; i < count; i ++) {
+                        Node control = child(reader.getImageMetadata(i), "GraphicControlExtension");
+                        int delay = control == null ? 0 : intAttribute(control, "delayTime");
+                        frames.add(new FrameHeader(
+                            file.toPath(), size.width, size.height,
+                            FrameSource.secondsToTicks(delay * SECONDS_PER_DELAY_UNIT, frameTime)
+                        ));
+                    }
+                } finally {
+                    reader.dispose();
+                }
+            }
+            headers = frames;
+        }
+        return headers;
+    }
+
+    @Override
+    public void forEach(FrameConsumer consumer) throws IOException {
+        List<FrameHeader> frames = headers();
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            ImageReader reader = gifReader(input);
+            if (reader == null) {
+                throw new IOException(String.format("Not a GIF: %s", file));
+            }
+            try {
+                // the frames are only read forwards so that earlier frames can be discarded
+                reader.setInput(input, true, false);
+                Dimension size = screenSize(reader);
+                BufferedImage canvas = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+                for (int i = 0; i < frames.size(); i ++) {
+                    IIOMetadata metadata = reader.getImageMetadata(i);
+                    Node descriptor = child(metadata, "ImageDescriptor");
+                    Node control = child(metadata, "GraphicControlExtension");
+                    String disposal = control == null ? "none" : attribute(control, "disposalMethod");
+                    Rectangle bounds = descriptor == null ? new Rectangle(size) : new Rectangle(
+                        intAttribute(descriptor, "imageLeftPosition"), intAttribute(descriptor, "imageTopPosition"),
+                        intAttribute(descriptor, "imageWidth"), intAttribute(descriptor, "imageHeight")
+                    );
+                    BufferedImage previous = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+
+                    Graphics2D graphics = canvas.createGraphics();
+                    graphics.drawImage(reader.read(i), bounds.x, bounds.y, null);
+                    graphics.dispose();
+
+                    consumer.accept(canvas, frames.get(i));
+
+                    if ("restoreToBackgroundColor".equals(disposal)) {
+                        clear(canvas, bounds);
+                    } else if (previous != null) {
+                        canvas = previous;
+                    }
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Clears a region of the canvas to transparent.
+     */
+    static void clear(BufferedImage canvas, Rectangle bounds) {
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        graphics.dispose();
+    }
+
+    /**
+     * @return a copy of a `TYPE_INT_ARGB` canvas
+     */
+    static BufferedImage copy(BufferedImage canvas) {
+        BufferedImage copy = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        canvas.copyData(copy.getRaster());
+        return copy;
+    }
+
+    private static ImageReader gifReader(ImageInputStream input) throws IOException {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        while (readers.hasNext()) {
+            ImageReader reader = readers.next();
+            if ("gif".equalsIgnoreCase(reader.getFormatName())) {
+                return reader;
+            }
+            reader.dispose();
+        }
+        return null;
+    }
+
+    /**
+     * @return the GIF's logical screen size (falling back to the first frame's size)
+     */
+    private static Dimension screenSize(ImageReader reader) throws IOException {
+        IIOMetadata metadata = reader.getStreamMetadata();
+        Node screen = metadata == null ? null : child(metadata.getAsTree(STREAM_METADATA_FORMAT), "LogicalScreenDescriptor");
+        if (screen != null) {
+            int width = intAttribute(screen, "logicalScreenWidth");
+            int height = intAttribute(screen, "logicalScreenHeight");
+            if (width > 0 && height > 0) {
+                return new Dimension(width, height);
+            }
+        }
+        return new Dimension(reader.getWidth(0), reader.getHeight(0));
+    }
+
+    private static Node child(IIOMetadata metadata, String name) {
+        return child(metadata.getAsTree(IMAGE_METADATA_FORMAT), name);
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static String attribute(Node node, String name) {
+        Node attribute = node.getAttributes().getNamedItem(name);
+        return attribute == null ? null : attribute.getNodeValue();
+    }
+
+    private static int intAttribute(Node node, String name) {
+        String value = attribute(node, name);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+}
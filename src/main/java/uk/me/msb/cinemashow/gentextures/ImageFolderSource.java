@@ -0,0 +1,100 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A frame source where each image file in the show sub-folder is a frame (files that aren't
+ * readable images are ignored). The lexicographic order of the file names gives the play order.
+ */
+public class ImageFolderSource implements FrameSource {
+
+    /**
+     * The show sub-folder.
+     */
+    private final File showDir;
+
+    /**
+     * The time each frame is shown for in ticks.
+     */
+    private final int frameTime;
+
+    /**
+     * The frame headers (read on demand).
+     */
+    private List<FrameHeader> headers;
+
+    public ImageFolderSource(File showDir, int frameTime) {
+        this.showDir = showDir;
+        this.frameTime = frameTime;
+    }
+
+    /**
+     * The sub-folder is enumerated as a stream and only the headers are kept.
+     */
+    @Override
+    public List<FrameHeader> headers() throws IOException {
+        if (headers == null) {
+            List<FrameHeader> frames = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(showDir.toPath(), Files::isRegularFile)) {
+                for (Path file: files) {
+                    FrameHeader header = readHeader(file);
+                    if (header != null) {
+                        frames.add(header);
+                    }
+                }
+            }
+            frames.sort(Comparator.comparing(FrameHeader::path));
+            headers = frames;
+        }
+        return headers;
+    }
+
+    @Override
+    public void forEach(FrameConsumer consumer) throws IOException {
+        for (FrameHeader header: headers()) {
+            BufferedImage image = ImageIO.read(header.path().toFile());
+            if (image == null) {
+                throw new IOException(String.format("Unable to decode: %s", header.path()));
+            }
+            consumer.accept(image, header);
+        }
+    }
+
+    /**
+     * Reads the dimensions of an image without decoding it's pixels.
+     *
+     * @param file a possible image file
+     * @return the image's header or null if the file isn't a readable image
+     * @throws IOException possible error when reading the file
+     */
+    private FrameHeader readHeader(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new FrameHeader(file, reader.getWidth(0), reader.getHeight(0), frameTime);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
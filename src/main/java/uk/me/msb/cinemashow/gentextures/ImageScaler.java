@@ -0,0 +1,245 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.util.stream.IntStream;
+
+/**
+ * Scales frame images working directly on their `int` RGB pixels. Images that aren't
+ * `TYPE_INT_RGB` are converted first (by drawing them onto a black `TYPE_INT_RGB` image, as the
+ * previous `Graphics` based scaling did). The box and Lanczos filters are applied separably (rows
+ * then columns) and large images are processed in parallel across rows.
+ */
+public class ImageScaler {
+
+    /**
+     * The number of source pixels above which rows are processed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 512 * 512;
+
+    /**
+     * The number of lobes of the Lanczos kernel.
+     */
+    private static final int LANCZOS_LOBES = 3;
+
+    /**
+     * The resampling kernel.
+     */
+    private final ScaleFilter filter;
+
+    public ImageScaler(ScaleFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @param image  the image to scale
+     * @param width  the scaled width
+     * @param height the scaled height
+     * @return the scaled `TYPE_INT_RGB` image
+     */
+    public BufferedImage scale(BufferedImage image, int width, int height) {
+        if (filter == ScaleFilter.NEAREST && !isIntRgb(image)) {
+            // sample first so that only the scaled pixels need converting
+            return toIntRgb(sample(image, width, height));
+        }
+        BufferedImage source = toIntRgb(image);
+        int[] sourcePixels = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] scaledPixels = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+        boolean parallel = (long) source.getWidth() * source.getHeight() > PARALLEL_THRESHOLD;
+        if (filter == ScaleFilter.NEAREST) {
+            nearest(sourcePixels, source.getWidth(), source.getHeight(), scaledPixels, width, height, parallel);
+        } else {
+            resample(sourcePixels, source.getWidth(), source.getHeight(), scaledPixels, width, height, parallel);
+        }
+        return scaled;
+    }
+
+    /**
+     * Nearest neighbour scaling using the same source pixel mapping as `ReplicateScaleFilter`.
+     */
+    private static void nearest(
+        int[] source, int sourceWidth, int sourceHeight, int[] scaled, int width, int height, boolean parallel
+    ) {
+        int[] columns = new int[width];
+        for (int x = 0; x < width; x ++) {
+            columns[x] = (int) ((2L * x * sourceWidth + sourceWidth) / (2L * width));
+        }
+        rows(height, parallel).forEach(y -> {
+            int sourceRow = (int) ((2L * y * sourceHeight + sourceHeight) / (2L * height)) * sourceWidth;
+            int row = y * width;
+            for (int x = 0; x < width; x ++) {
+                scaled[row + x] = source[sourceRow + columns[x]];
+            }
+        });
+    }
+
+    /**
+     * Nearest neighbour scaling of an image of any type (the scaled image has the same type).
+     */
+    private static BufferedImage sample(BufferedImage image, int width, int height) {
+        ColorModel colorModel = image.getColorModel();
+        WritableRaster source = image.getRaster();
+        WritableRaster raster = colorModel.createCompatibleWritableRaster(width, height);
+        Object pixel = null;
+        for (int y = 0; y < height; y ++) {
+            int sourceY = (int) ((2L * y * image.getHeight() + image.getHeight()) / (2L * height));
+            for (int x = 0; x < width; x ++) {
+                int sourceX = (int) ((2L * x * image.getWidth() + image.getWidth()) / (2L * width));
+                pixel = source.getDataElements(sourceX, sourceY, pixel);
+                raster.setDataElements(x, y, pixel);
+            }
+        }
+        return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), null);
+    }
+
+    /**
+     * The source pixels (and their weights) that contribute to each scaled pixel along one axis.
+     *
+     * @param first   the first contributing source pixel of each scaled pixel
+     * @param weights the normalised weights of the contributing source pixels
+     */
+    private record Contributions(int[] first, float[][] weights) {
+    }
+
+    /**
+     * Separable resampling (rows then columns) using the box or Lanczos filter.
+     */
+    private void resample(
+        int[] source, int sourceWidth, int sourceHeight, int[] scaled, int width, int height, boolean parallel
+    ) {
+        Contributions horizontal = contributions(sourceWidth, width);
+        Contributions vertical = contributions(sourceHeight, height);
+
+        // horizontal pass: `sourceHeight` rows of `width` pixels (3 channels)
+        float[] intermediate = new float[sourceHeight * width * 3];
+        rows(sourceHeight, parallel).forEach(y -> {
+            int sourceRow = y * sourceWidth;
+            int row = y * width * 3;
+            for (int x = 0; x < width; x ++) {
+                float r = 0, g = 0, b = 0;
+                float[] weights = horizontal.weights()[x];
+                int first = horizontal.first()[x];
+                for (int i = 0; i < weights.length; i ++) {
+                    int rgb = source[sourceRow + first + i];
+                    r += weights[i] * (rgb >> 16 & 0xff);
+                    g += weights[i] * (rgb >> 8 & 0xff);
+                    b += weights[i] * (rgb & 0xff);
+                }
+                intermediate[row + x * 3] = r;
+                intermediate[row + x * 3 + 1] = g;
+                intermediate[row + x * 3 + 2] = b;
+            }
+        });
+
+        // vertical pass
+        rows(height, parallel).forEach(y -> {
+            float[] weights = vertical.weights()[y];
+            int first = vertical.first()[y];
+            for (int x = 0; x < width; x ++) {
+                float r = 0, g = 0, b = 0;
+                for (int i = 0; i < weights.length; i ++) {
+                    int offset = ((first + i) * width + x) * 3;
+                    r += weights[i] * intermediate[offset];
+                    g += weights[i] * intermediate[offset + 1];
+                    b += weights[i] * intermediate[offset + 2];
+                }
+                scaled[y * width + x] = clamp(r) << 16 | clamp(g) << 8 | clamp(b);
+            }
+        });
+    }
+
+    /**
+     * Calculates the contributions of source pixels to each scaled pixel along an axis.
+     *
+     * @param sourceLength the source length of the axis
+     * @param length       the scaled length of the axis
+     * @return the contributions
+     */
+    private Contributions contributions(int sourceLength, int length) {
+        double scale = (double) sourceLength / length;
+        int[] first = new int[length];
+        float[][] weights = new float[length][];
+        for (int i = 0; i < length; i ++) {
+            double start;
+            double end;
+            if (filter == ScaleFilter.BOX) {
+                // the source interval covered by the scaled pixel
+                start = i * scale;
+                end = Math.min(sourceLength, (i + 1) * scale);
+            } else {
+                // the kernel is widened when downscaling
+                double support = LANCZOS_LOBES * Math.max(scale, 1);
+                double centre = (i + 0.5) * scale;
+                start = centre - support;
+                end = centre + support;
+            }
+            int from = Math.max(0, (int) Math.floor(start));
+            int to = Math.min(sourceLength - 1, (int) Math.ceil(end) - 1);
+            to = Math.max(from, to);
+            float[] pixelWeights = new float[to - from + 1];
+            double total = 0;
+            for (int j = from; j <= to; j ++) {
+                double weight;
+                if (filter == ScaleFilter.BOX) {
+                    weight = Math.max(0, Math.min(end, j + 1) - Math.max(start, j));
+                } else {
+                    weight = lanczos((j + 0.5 - (i + 0.5) * scale) / Math.max(scale, 1));
+                }
+                pixelWeights[j - from] = (float) weight;
+                total += weight;
+            }
+            if (total != 0) {
+                for (int j = 0; j < pixelWeights.length; j ++) {
+                    pixelWeights[j] /= (float) total;
+                }
+            }
+            first[i] = from;
+            weights[i] = pixelWeights;
+        }
+        return new Contributions(first, weights);
+    }
+
+    private static double lanczos(double x) {
+        if (x == 0) {
+            return 1;
+        }
+        if (Math.abs(x) >= LANCZOS_LOBES) {
+            return 0;
+        }
+        double px = Math.PI * x;
+        return LANCZOS_LOBES * Math.sin(px) * Math.sin(px / LANCZOS_LOBES) / (px * px);
+    }
+
+    private static int clamp(float value) {
+        return Math.max(0, Math.min(255, Math.round(value)));
+    }
+
+    /**
+     * @return whether the image's pixels can be used directly
+     */
+    private static boolean isIntRgb(BufferedImage image) {
+        return image.getType() == BufferedImage.TYPE_INT_RGB && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0;
+    }
+
+    private static IntStream rows(int count, boolean parallel) {
+        IntStream rows = IntStream.range(0, count);
+        return parallel ? rows.parallel() : rows;
+    }
+
+    /**
+     * @param image an image
+     * @return the image or a `TYPE_INT_RGB` copy of it
+     */
+    private static BufferedImage toIntRgb(BufferedImage image) {
+        if (isIntRgb(image)) {
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        converted.getGraphics().drawImage(image, 0, 0, null);
+        return converted;
+    }
+}
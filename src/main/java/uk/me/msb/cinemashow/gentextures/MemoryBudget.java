@@ -0,0 +1,49 @@
+package uk.me.msb.cinemashow.gentextures;
+
+/**
+ * A counting semaphore measured in bytes. Each show reserves its estimated decoded footprint before
+ * it is processed so that several large shows aren't held in memory at the same time. A show
+ * larger than the whole budget is allowed to run, but only on it's own.
+ */
+public class MemoryBudget {
+
+    /**
+     * The total number of bytes that can be reserved.
+     */
+    private final long capacity;
+
+    /**
+     * The number of bytes currently reserved.
+     */
+    private long reserved = 0;
+
+    public MemoryBudget(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Blocks until `bytes` can be reserved.
+     *
+     * @param bytes the estimated footprint
+     * @return the number of bytes actually reserved (to be passed to `release()`)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized long acquire(long bytes) throws InterruptedException {
+        long clamped = Math.min(bytes, capacity);
+        while (reserved + clamped > capacity) {
+            wait();
+        }
+        reserved += clamped;
+        return clamped;
+    }
+
+    /**
+     * Releases bytes reserved with `acquire()`.
+     *
+     * @param bytes the value returned by `acquire()`
+     */
+    public synchronized void release(long bytes) {
+        reserved -= bytes;
+        notifyAll();
+    }
+}
@@ -0,0 +1,278 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A PNG encoder for the (tall and narrow) animated texture images. Images are written as 8 bit RGB.
+ * The image's rows are split into blocks that are filtered and deflated in parallel. Each block
+ * is deflated as part of a single zlib stream: it is primed with the end of the previous block as
+ * a dictionary and ended with a sync flush so that the blocks can simply be concatenated.
+ */
+public class PngEncoder {
+
+    /**
+     * The PNG file signature.
+     */
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    /**
+     * The (approximate) number of filtered bytes deflated as a single block.
+     */
+    private static final int BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * The maximum size of a deflate dictionary.
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * The maximum size of the data of a single IDAT chunk.
+     */
+    private static final int MAX_IDAT_SIZE = 256 * 1024;
+
+    /**
+     * The number of bytes in an RGB pixel.
+     */
+    private static final int BYTES_PER_PIXEL = 3;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    /**
+     * The speed/size trade-off.
+     */
+    private final PngMode mode;
+
+    public PngEncoder(PngMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Encodes the image as a PNG.
+     *
+     * @param image the image (must be `TYPE_INT_RGB`)
+     * @param out   the stream to write the PNG to
+     * @throws IOException possible error when writing the stream
+     */
+    public void write(BufferedImage image, OutputStream out) throws IOException {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Only TYPE_INT_RGB images are supported");
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int stride = ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride();
+        int rowOffset = image.getRaster().getSampleModelTranslateY() * -stride
+                - image.getRaster().getSampleModelTranslateX();
+
+        // filter and deflate each block of rows in parallel
+        int rowLength = 1 + width * BYTES_PER_PIXEL;
+        int rowsPerBlock = Math.max(1, BLOCK_SIZE / rowLength);
+        int blockCount = (height + rowsPerBlock - 1) / rowsPerBlock;
+        byte[][] filtered = IntStream.range(0, blockCount).parallel()
+                .mapToObj(block -> filterRows(
+                    pixels, rowOffset, stride, width,
+                    block * rowsPerBlock, Math.min(height, (block + 1) * rowsPerBlock)
+                ))
+                .toArray(byte[][]::new);
+        byte[][] deflated = IntStream.range(0, blockCount).parallel()
+                .mapToObj(block -> deflate(
+                    filtered[block], block == 0 ? null : filtered[block - 1], block == blockCount - 1
+                ))
+                .toArray(byte[][]::new);
+
+        // wrap the deflated blocks as a zlib stream
+        Adler32 adler = new Adler32();
+        ByteArrayOutputStream zlib = new ByteArrayOutputStream();
+        zlib.write(0x78);
+        zlib.write(zlibFlags());
+        for (int block = 0; block < blockCount; block ++) {
+            adler.update(filtered[block]);
+            zlib.write(deflated[block]);
+        }
+        int checksum = (int) adler.getValue();
+        zlib.write(checksum >>> 24);
+        zlib.write(checksum >>> 16);
+        zlib.write(checksum >>> 8);
+        zlib.write(checksum);
+
+        DataOutputStream png = new DataOutputStream(out);
+        png.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.writeByte(8); // bit depth
+        headerData.writeByte(2); // colour type (RGB)
+        headerData.writeByte(0); // compression method
+        headerData.writeByte(0); // filter method
+        headerData.writeByte(0); // interlace method
+        writeChunk(png, "IHDR", header.toByteArray(), 0, header.size());
+        byte[] data = zlib.toByteArray();
+        for (int offset = 0; offset < data.length; offset += MAX_IDAT_SIZE) {
+            writeChunk(png, "IDAT", data, offset, Math.min(MAX_IDAT_SIZE, data.length - offset));
+        }
+        writeChunk(png, "IEND", new byte[0], 0, 0);
+        png.flush();
+    }
+
+    /**
+     * Converts a range of the image's rows to filtered PNG scanlines.
+     *
+     * @param pixels    the image's pixels
+     * @param rowOffset the offset of the first row in `pixels`
+     * @param stride    the distance between rows in `pixels`
+     * @param width     the image's width
+     * @param startRow  the first row (inclusive)
+     * @param endRow    the last row (exclusive)
+     * @return the filtered scanlines (each prefixed with it's filter type)
+     */
+    private byte[] filterRows(int[] pixels, int rowOffset, int stride, int width, int startRow, int endRow) {
+        int rawLength = width * BYTES_PER_PIXEL;
+        byte[] result = new byte[(endRow - startRow) * (1 + rawLength)];
+        byte[] previous = new byte[rawLength];
+        byte[] current = new byte[rawLength];
+        byte[] candidate = new byte[rawLength];
+        if (startRow > 0) {
+            unpackRow(pixels, rowOffset + (startRow - 1) * stride, width, previous);
+        }
+        int position = 0;
+        for (int row = startRow; row < endRow; row ++) {
+            unpackRow(pixels, rowOffset + row * stride, width, current);
+            int filterType = FILTER_NONE;
+            if (mode.isAdaptiveFilter()) {
+                // pick the filter with the lowest sum of absolute (signed) values
+                long bestScore = Long.MAX_VALUE;
+                for (int type = FILTER_NONE; type <= FILTER_PAETH; type ++) {
+                    applyFilter(type, current, previous, candidate);
+                    long score = 0;
+                    for (byte value: candidate) {
+                        score += Math.abs(value);
+                    }
+                    if (score < bestScore) {
+                        bestScore = score;
+                        filterType = type;
+                    }
+                }
+            }
+            result[position ++] = (byte) filterType;
+            applyFilter(filterType, current, previous, candidate);
+            System.arraycopy(candidate, 0, result, position, rawLength);
+            position += rawLength;
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return result;
+    }
+
+    private static void unpackRow(int[] pixels, int offset, int width, byte[] row) {
+        for (int x = 0, i = 0; x < width; x ++) {
+            int rgb = pixels[offset + x];
+            row[i ++] = (byte) (rgb >>> 16);
+            row[i ++] = (byte) (rgb >>> 8);
+            row[i ++] = (byte) rgb;
+        }
+    }
+
+    private static void applyFilter(int type, byte[] current, byte[] previous, byte[] filtered) {
+        for (int i = 0; i < current.length; i ++) {
+            int x = current[i] & 0xff;
+            int a = i >= BYTES_PER_PIXEL ? current[i - BYTES_PER_PIXEL] & 0xff : 0;
+            int b = previous[i] & 0xff;
+            int c = i >= BYTES_PER_PIXEL ? previous[i - BYTES_PER_PIXEL] & 0xff : 0;
+            int predictor = switch (type) {
+                case FILTER_SUB -> a;
+                case FILTER_UP -> b;
+                case FILTER_AVERAGE -> (a + b) >>> 1;
+                case FILTER_PAETH -> paeth(a, b, c);
+                default -> 0;
+            };
+            filtered[i] = (byte) (x - predictor);
+        }
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Deflates a block of filtered scanlines as raw deflate data.
+     *
+     * @param block    the filtered scanlines
+     * @param previous the previous block (used as the dictionary, may be null)
+     * @param last     whether this is the last block of the stream
+     * @return the deflated data
+     */
+    private byte[] deflate(byte[] block, byte[] previous, boolean last) {
+        Deflater deflater = new Deflater(mode.getLevel(), true);
+        try {
+            if (previous != null) {
+                int length = Math.min(DICTIONARY_SIZE, previous.length);
+                deflater.setDictionary(previous, previous.length - length, length);
+            }
+            deflater.setInput(block);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(block.length / 2 + 64);
+            byte[] buffer = new byte[16 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // a sync flush is complete when the buffer isn't filled
+                int length;
+                do {
+                    length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, length);
+                } while (length == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @return the zlib header's FLG byte (the compression level hint and check bits)
+     */
+    private int zlibFlags() {
+        int level = mode.getLevel();
+        int levelHint = level == Deflater.BEST_SPEED ? 0 : level == Deflater.BEST_COMPRESSION ? 3 : 2;
+        int flags = levelHint << 6;
+        return flags + (31 - ((0x78 << 8) + flags) % 31);
+    }
+
+    static void writeChunk(DataOutputStream out, String type, byte[] data, int offset, int length)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, offset, length);
+        out.writeInt((int) crc.getValue());
+    }
+}
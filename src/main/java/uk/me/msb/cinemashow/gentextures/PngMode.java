@@ -0,0 +1,45 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.util.zip.Deflater;
+
+/**
+ * The trade-off between speed and size used by `PngEncoder`.
+ */
+public enum PngMode {
+
+    /**
+     * Quick dev iterations: the rows aren't filtered and the lowest deflate level is used.
+     */
+    FAST(Deflater.BEST_SPEED, false),
+    /**
+     * Each row's filter is chosen heuristically and the default deflate level is used.
+     */
+    BALANCED(Deflater.DEFAULT_COMPRESSION, true),
+    /**
+     * Release jars: each row's filter is chosen heuristically and the highest deflate level is used.
+     */
+    MAX(Deflater.BEST_COMPRESSION, true);
+
+    /**
+     * The deflate level.
+     */
+    private final int level;
+
+    /**
+     * Whether a filter is chosen for each row (otherwise no filtering is done).
+     */
+    private final boolean adaptiveFilter;
+
+    PngMode(int level, boolean adaptiveFilter) {
+        this.level = level;
+        this.adaptiveFilter = adaptiveFilter;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isAdaptiveFilter() {
+        return adaptiveFilter;
+    }
+}
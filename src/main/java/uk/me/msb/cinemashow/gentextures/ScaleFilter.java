@@ -0,0 +1,20 @@
+package uk.me.msb.cinemashow.gentextures;
+
+/**
+ * The resampling kernel used by `ImageScaler`.
+ */
+public enum ScaleFilter {
+
+    /**
+     * Nearest neighbour (bit-identical to `Image.SCALE_REPLICATE`).
+     */
+    NEAREST,
+    /**
+     * Area average: each pixel is the average of the source pixels it covers.
+     */
+    BOX,
+    /**
+     * Lanczos (3 lobes): the sharpest of the filters for downscaling.
+     */
+    LANCZOS
+}
@@ -0,0 +1,322 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import uk.me.msb.cinemashow.ContainerEncoding;
+import uk.me.msb.cinemashow.ShowContainer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a show container (see `ShowContainer` for the layout). The frame times are known from the
+ * frame headers so space is reserved for the header, frame times and offset index of every frame,
+ * the frame records are appended as the frames are streamed and the header and index are filled
+ * in on `close()`. A frame identical to the previous one isn't written, it's time is added to the
+ * previous frame's instead (so runs of identical frames, e.g. a held title card, take a single
+ * record). The space reserved for the collapsed frames is left unused before the first record.
+ * With `ContainerEncoding.DELTA` each frame is compared tile by tile with the previous frame and
+ * only the changed tiles are written between keyframes.
+ */
+public class ShowContainerWriter implements Closeable {
+
+    /**
+     * The deflate level used for `ContainerEncoding.DEFLATE` (favouring speed).
+     */
+    private static final int DEFLATE_LEVEL = Deflater.BEST_SPEED;
+
+    private final FileChannel channel;
+
+    private final ContainerEncoding encoding;
+
+    private final int tileSize;
+
+    private final int blocksX;
+
+    private final int blocksY;
+
+    /**
+     * The number of frames from one keyframe to the next (1 unless the encoding is `DELTA`).
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The time in ticks of each of the frames that will be written.
+     */
+    private final int[] frameTimes;
+
+    /**
+     * The time in ticks of each record (the sum of the times of the identical frames it holds).
+     */
+    private final int[] times;
+
+    /**
+     * The offset of each record from the start of the file (the last is the end of the file).
+     */
+    private final long[] offsets;
+
+    /**
+     * The decoded record of the current frame.
+     */
+    private byte[] pixels;
+
+    /**
+     * The decoded record of the previous frame.
+     */
+    private byte[] previous;
+
+    /**
+     * Holds the decoded delta record of the current frame (only used by `DELTA`).
+     */
+    private final byte[] delta;
+
+    /**
+     * Holds a compressed record (sized well above deflate's worst case expansion).
+     */
+    private final byte[] compressed;
+
+    private final Deflater deflater;
+
+    /**
+     * The number of frames written.
+     */
+    private int frameCount = 0;
+
+    /**
+     * The number of records written (frames less the collapsed frames).
+     */
+    private int recordCount = 0;
+
+    /**
+     * The number of tiles written (in keyframe and delta records).
+     */
+    private long tilesWritten = 0;
+
+    /**
+     * @param file       the container file
+     * @param encoding   how the frame records are stored
+     * @param keyframeInterval the number of frames from one keyframe to the next (ignored unless
+     *                   the encoding is `DELTA`)
+     * @param tileSize   the number of pixels along a side of a tile
+     * @param blocksX    the number of tiles along the x axis
+     * @param blocksY    the number of tiles along the y axis
+     * @param frameTimes the time in ticks of each of the frames that will be written
+     * @throws IOException possible error when writing the file
+     */
+    public ShowContainerWriter(
+        File file, ContainerEncoding encoding, int keyframeInterval, int tileSize, int blocksX, int blocksY,
+        int[] frameTimes
+    ) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("keyframeInterval should be greater than zero");
+        }
+        this.channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        );
+        this.encoding = encoding;
+        this.tileSize = tileSize;
+        this.blocksX = blocksX;
+        this.blocksY = blocksY;
+        this.keyframeInterval = encoding == ContainerEncoding.DELTA ? keyframeInterval : 1;
+        this.frameTimes = frameTimes.clone();
+        this.times = new int[frameTimes.length];
+        this.offsets = new long[frameTimes.length + 1];
+        this.pixels = new byte[blocksX * blocksY * tileSize * tileSize * ShowContainer.BYTES_PER_PIXEL];
+        this.previous = new byte[pixels.length];
+        boolean deltas = encoding == ContainerEncoding.DELTA;
+        this.delta = deltas ? new byte[(blocksX * blocksY + 7) / 8 + pixels.length] : null;
+        int longest = deltas ? delta.length : pixels.length;
+        this.compressed = new byte[longest + longest / 8 + 64];
+        this.deflater = encoding == ContainerEncoding.RAW ? null : new Deflater(DEFLATE_LEVEL);
+        // the header, frame times and offset index are written on `close()`
+        channel.position(indexLength(frameTimes.length));
+    }
+
+    /**
+     * @param recordCount a number of records
+     * @return the length of the header, frame times and offset index of a container of the records
+     */
+    private static long indexLength(int recordCount) {
+        return ShowContainer.HEADER_LENGTH + (long) recordCount * Integer.BYTES + (recordCount + 1L) * Long.BYTES;
+    }
+
+    /**
+     * Crops every tile from the frame image and appends the frame's record (unless the frame is
+     * identical to the previous one).
+     *
+     * @param frameImage scaled frame image (must be `TYPE_INT_RGB`)
+     * @param offset     offset into the frame image of the top left tile
+     * @throws IOException possible error when writing the file
+     */
+    public void write(BufferedImage frameImage, Point offset) throws IOException {
+        if (frameCount == frameTimes.length) {
+            throw new IllegalStateException("More frames written than given frame times");
+        }
+        if (frameImage.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Only TYPE_INT_RGB images are supported");
+        }
+        int[] frame = ((DataBufferInt) frameImage.getRaster().getDataBuffer()).getData();
+        int stride = ((SinglePixelPackedSampleModel) frameImage.getSampleModel()).getScanlineStride();
+        int i = 0;
+        for (int tileY = 0; tileY < blocksY; tileY ++) {
+            for (int tileX = 0; tileX < blocksX; tileX ++) {
+                for (int row = 0; row < tileSize; row ++) {
+                    int pixel = (offset.y + tileY * tileSize + row) * stride + offset.x + tileX * tileSize;
+                    for (int column = 0; column < tileSize; column ++, pixel ++) {
+                        int rgb = frame[pixel];
+                        pixels[i ++] = (byte) (rgb >> 16);
+                        pixels[i ++] = (byte) (rgb >> 8);
+                        pixels[i ++] = (byte) rgb;
+                    }
+                }
+            }
+        }
+        int frameTime = frameTimes[frameCount ++];
+        if (recordCount > 0 && Arrays.equals(pixels, previous)) {
+            times[recordCount - 1] += frameTime;
+            return;
+        }
+        times[recordCount] = frameTime;
+        offsets[recordCount] = channel.position();
+        if (encoding != ContainerEncoding.DELTA || recordCount % keyframeInterval == 0) {
+            writeRecord(pixels, pixels.length);
+            tilesWritten += blocksX * blocksY;
+        } else {
+            writeRecord(delta, createDelta());
+        }
+        byte[] swap = previous;
+        previous = pixels;
+        pixels = swap;
+        recordCount ++;
+    }
+
+    /**
+     * @return the number of records written so far (the container's frame count)
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Fills `delta` with the tiles of `pixels` that differ from `previous`.
+     *
+     * @return the length of the delta record
+     */
+    private int createDelta() {
+        int tileCount = blocksX * blocksY;
+        int tileLength = tileSize * tileSize * ShowContainer.BYTES_PER_PIXEL;
+        int bitsLength = (tileCount + 7) / 8;
+        Arrays.fill(delta, 0, bitsLength, (byte) 0);
+        int length = bitsLength;
+        for (int tile = 0; tile < tileCount; tile ++) {
+            int start = tile * tileLength;
+            if (Arrays.mismatch(pixels, start, start + tileLength, previous, start, start + tileLength) >= 0) {
+                delta[tile >> 3] |= (byte) (1 << (tile & 7));
+                System.arraycopy(pixels, start, delta, length, tileLength);
+                length += tileLength;
+                tilesWritten ++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return the number of bytes written so far
+     * @throws IOException possible error when reading the file's position
+     */
+    public long size() throws IOException {
+        return channel.position();
+    }
+
+    /**
+     * @return the size of the frames written so far if every tile of every frame was stored
+     * uncompressed divided by the number of bytes written
+     * @throws IOException possible error when reading the file's position
+     */
+    public double getCompressionRatio() throws IOException {
+        return (double) frameCount * pixels.length / size();
+    }
+
+    /**
+     * @return the fraction of the tiles of the frames written so far that were stored (i.e. in
+     * keyframes or changed since the previous frame)
+     */
+    public double getTilesWrittenFraction() {
+        return frameCount == 0 ? 0 : (double) tilesWritten / ((long) frameCount * blocksX * blocksY);
+    }
+
+    private void writeRecord(byte[] record, int length) throws IOException {
+        if (deflater == null) {
+            writeFully(ByteBuffer.wrap(record, 0, length));
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(record, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        writeFully(ByteBuffer.wrap(compressed, 0, compressedLength));
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes the header, frame times and offset index and closes the file.
+     *
+     * @throws IOException possible error when writing the file, if fewer frames were written than
+     * frame times given or if the container is over 2GB (the largest region that can be mapped)
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (frameCount != frameTimes.length) {
+                throw new IOException(String.format(
+                    "%d frames written but %d frame times given", frameCount, frameTimes.length
+                ));
+            }
+            if (channel.position() > Integer.MAX_VALUE) {
+                throw new IOException(String.format(
+                    "Show container is %d bytes, over the 2GB limit", channel.position()
+                ));
+            }
+            offsets[recordCount] = channel.position();
+            ByteBuffer index = ByteBuffer.allocate((int) indexLength(recordCount));
+            index.putInt(ShowContainer.MAGIC);
+            index.putShort((short) ShowContainer.VERSION);
+            index.putShort((short) encoding.ordinal());
+            index.putInt(tileSize).putInt(blocksX).putInt(blocksY);
+            index.putInt(recordCount);
+            index.putInt(keyframeInterval);
+            for (int i = 0; i < recordCount; i ++) {
+                index.putInt(times[i]);
+            }
+            for (int i = 0; i <= recordCount; i ++) {
+                index.putLong(offsets[i]);
+            }
+            index.flip();
+            long position = 0;
+            while (index.hasRemaining()) {
+                position += channel.write(index, position);
+            }
+        } finally {
+            channel.close();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+}
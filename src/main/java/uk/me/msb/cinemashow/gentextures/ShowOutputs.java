@@ -0,0 +1,13 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * The result of processing a show.
+ *
+ * @param blockName the show's block name
+ * @param files     the resources written for the show
+ */
+public record ShowOutputs(String blockName, List<File> files) {
+}
@@ -15,9 +15,9 @@ import java.awt.*;
 public class ShowScalingContext {
 
     /**
-     * How many pixels per MC block (along a single axis)
+     * How many pixels per MC block (along a single axis) the frames are scaled to.
      */
-    public static final int PIXELS_PER_BLOCK = 16;
+    final private int pixelsPerBlock;
 
     /**
      * Properties for a show.
@@ -35,10 +35,26 @@ public class ShowScalingContext {
     private int min2ndAxisLength = Integer.MAX_VALUE;
 
     public ShowScalingContext(ShowProperties props) {
+        this(props, ShowProperties.PIXELS_PER_BLOCK);
+    }
+
+    /**
+     * Note that the contexts for all of a show's resolution tiers must be created before `positions()` is called on
+     * any of them (as it sets the undefined axis).
+     *
+     * @param props          the show's properties
+     * @param pixelsPerBlock the resolution tier
+     */
+    public ShowScalingContext(ShowProperties props, int pixelsPerBlock) {
         this.props = props;
+        this.pixelsPerBlock = pixelsPerBlock;
         xDefinedAxis = props.getBlocksY() == 0;
     }
 
+    public int getPixelsPerBlock() {
+        return pixelsPerBlock;
+    }
+
     /**
      * Gets the target scale frame using the scheme defined in the README (How the image
      * processing works) . Also updates `min2ndAxisLength`.
@@ -50,11 +66,11 @@ public class ShowScalingContext {
     public Dimension getScaleForImage(int imageWidth, int imageHeight) {
         Dimension scale = new Dimension();
         if (xDefinedAxis) {
-            scale.width = props.getBlocksX() * PIXELS_PER_BLOCK;
+            scale.width = props.getBlocksX() * pixelsPerBlock;
             scale.height = scale.width * imageHeight / imageWidth;
             min2ndAxisLength = Math.min(min2ndAxisLength, scale.height);
         } else {
-            scale.height = props.getBlocksY() * PIXELS_PER_BLOCK;
+            scale.height = props.getBlocksY() * pixelsPerBlock;
             scale.width = scale.height * imageWidth / imageHeight;
             min2ndAxisLength = Math.min(min2ndAxisLength, scale.width);
         }
@@ -67,14 +83,15 @@ public class ShowScalingContext {
      * 
      * @return the `Iterable`
      */
-    public Iterable<Point> positions() {
-        // rounds `min2ndAxisLength` down to the nearest `PIXELS_PER_BLOCK` (idempotent)
-        min2ndAxisLength -= min2ndAxisLength % PIXELS_PER_BLOCK;
+    public TileIterableIterator positions() {
+        // rounds `min2ndAxisLength` down to the nearest `pixelsPerBlock` (idempotent). As the defined axis is
+        // `blocks * pixelsPerBlock` long the number of blocks is the same for every tier.
+        min2ndAxisLength -= min2ndAxisLength % pixelsPerBlock;
 
         if (xDefinedAxis) {
-            props.setBlocksY(min2ndAxisLength / PIXELS_PER_BLOCK);
+            props.setBlocksY(min2ndAxisLength / pixelsPerBlock);
         } else {
-            props.setBlocksX(min2ndAxisLength / PIXELS_PER_BLOCK);
+            props.setBlocksX(min2ndAxisLength / pixelsPerBlock);
         }
         return new TileIterableIterator(props);
     }
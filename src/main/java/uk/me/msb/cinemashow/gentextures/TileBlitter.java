@@ -0,0 +1,237 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.*;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Copies the tiles of scaled frame images into the show's animated texture images. The copying is
+ * done directly between the images' `int` pixel buffers, a row of a tile at a time, so that a
+ * frame can be written into all of the texture images in a single sweep (without the overhead of
+ * the Java2D pipeline).
+ * <p>
+ * Runs of identical (or, with a tolerance, nearly identical) frames of a tile are collapsed into a
+ * single texture frame whose time is the sum of the run's frame times. Each texture image is
+ * therefore only filled up to `getFrameCount()` frames.
+ * <p>
+ * The tiles of a frame are independent so a show with many tiles is blitted in parallel.
+ */
+public class TileBlitter {
+
+    /**
+     * The fewest tiles for a frame to be blitted in parallel (below this the cost of splitting the
+     * work outweighs the copying).
+     */
+    private static final int PARALLEL_TILES = 64;
+
+    /**
+     * The number of pixels along a side of a tile.
+     */
+    private final int pixelsPerBlock;
+
+    /**
+     * The number of pixels in a single tile.
+     */
+    private final int pixelsPerTile;
+
+    /**
+     * The tile positions.
+     */
+    private final List<Point> positions;
+
+    /**
+     * The pixel buffers of the texture images (in the same order as `positions`).
+     */
+    private final int[][] textures;
+
+    /**
+     * The number of frames written to each texture image.
+     */
+    private final int[] frameCounts;
+
+    /**
+     * The time (in ticks) of each frame written to each texture image.
+     */
+    private final int[][] frameTimes;
+
+    /**
+     * The largest difference of a colour channel for two tile frames to be considered the same.
+     */
+    private final int tolerance;
+
+    /**
+     * @param positions     the tile positions
+     * @param outputImages  the texture images for each position (must be `TYPE_INT_RGB`)
+     * @param tolerance     the largest colour channel difference for frames to be collapsed
+     */
+    public TileBlitter(List<Point> positions, List<BufferedImage> outputImages, int tolerance) {
+        this(positions, outputImages, ShowProperties.PIXELS_PER_BLOCK, tolerance);
+    }
+
+    /**
+     * @param positions      the tile positions
+     * @param outputImages   the texture images for each position (must be `TYPE_INT_RGB`)
+     * @param pixelsPerBlock the number of pixels along a side of a tile
+     * @param tolerance      the largest colour channel difference for frames to be collapsed
+     */
+    public TileBlitter(List<Point> positions, List<BufferedImage> outputImages, int pixelsPerBlock, int tolerance) {
+        this.positions = positions;
+        this.pixelsPerBlock = pixelsPerBlock;
+        this.pixelsPerTile = pixelsPerBlock * pixelsPerBlock;
+        this.textures = new int[outputImages.size()][];
+        this.frameCounts = new int[textures.length];
+        this.frameTimes = new int[textures.length][];
+        this.tolerance = tolerance;
+        for (int i = 0; i < textures.length; i ++) {
+            textures[i] = pixels(outputImages.get(i));
+            frameTimes[i] = new int[textures[i].length / pixelsPerTile];
+        }
+    }
+
+    /**
+     * Crops every tile from the frame image and copies it into the tile's texture image as the next
+     * frame (or extends the tile's last frame if they match).
+     *
+     * @param frameImage scaled frame image (must be `TYPE_INT_RGB`)
+     * @param offset     offset into the frame image of the bottom left tile
+     * @param time       the frame's time in ticks
+     */
+    public void blit(BufferedImage frameImage, Point offset, int time) {
+        int[] frame = pixels(frameImage);
+        int stride = ((SinglePixelPackedSampleModel) frameImage.getSampleModel()).getScanlineStride();
+        if (textures.length < PARALLEL_TILES) {
+            for (int p = 0; p < textures.length; p ++) {
+                blitTile(frame, stride, offset, time, p);
+            }
+        } else {
+            IntStream.range(0, textures.length).parallel().forEach(p -> blitTile(frame, stride, offset, time, p));
+        }
+    }
+
+    /**
+     * Copies a tile of the frame image into the tile's texture image (only the tile's own state is
+     * updated).
+     *
+     * @param frame  the frame image's pixels
+     * @param stride the frame image's scanline stride
+     * @param offset offset into the frame image of the bottom left tile
+     * @param time   the frame's time in ticks
+     * @param p      the index of the tile position
+     */
+    private void blitTile(int[] frame, int stride, Point offset, int time, int p) {
+        Point position = positions.get(p);
+        int frameOffset = (offset.y + position.y * pixelsPerBlock) * stride
+                + offset.x + position.x * pixelsPerBlock;
+        int[] texture = textures[p];
+        int count = frameCounts[p];
+        int textureOffset = count * pixelsPerTile;
+        for (int row = 0; row < pixelsPerBlock; row ++) {
+            System.arraycopy(
+                frame, frameOffset + row * stride,
+                texture, textureOffset + row * pixelsPerBlock,
+                pixelsPerBlock
+            );
+        }
+        if (count > 0 && matches(texture, textureOffset - pixelsPerTile, textureOffset)) {
+            frameTimes[p][count - 1] += time;
+        } else {
+            frameTimes[p][count] = time;
+            frameCounts[p] = count + 1;
+        }
+    }
+
+    /**
+     * @param index the index of the tile position
+     * @return the number of frames written to the tile's texture image
+     */
+    public int getFrameCount(int index) {
+        return frameCounts[index];
+    }
+
+    /**
+     * @param index the index of the tile position
+     * @return the time (in ticks) of each frame written to the tile's texture image
+     */
+    public int[] getFrameTimes(int index) {
+        return Arrays.copyOf(frameTimes[index], frameCounts[index]);
+    }
+
+    /**
+     * Finds tile positions whose texture images are identical (same frames and frame times) so that
+     * they can share a single texture.
+     *
+     * @return for each tile position the index of the first tile position with an identical texture
+     * image (its own index if there isn't an earlier one)
+     */
+    public int[] findSharedTextures() {
+        int[] owners = new int[textures.length];
+        Map<Integer, List<Integer>> candidates = new HashMap<>();
+        for (int p = 0; p < textures.length; p ++) {
+            int length = frameCounts[p] * pixelsPerTile;
+            int hash = 31 * Arrays.hashCode(getFrameTimes(p)) + hashRange(textures[p], length);
+            List<Integer> sameHash = candidates.computeIfAbsent(hash, key -> new ArrayList<>());
+            owners[p] = p;
+            for (int candidate: sameHash) {
+                if (frameCounts[candidate] == frameCounts[p]
+                        && Arrays.equals(frameTimes[candidate], 0, frameCounts[p], frameTimes[p], 0, frameCounts[p])
+                        && Arrays.equals(textures[candidate], 0, length, textures[p], 0, length)) {
+                    owners[p] = candidate;
+                    break;
+                }
+            }
+            if (owners[p] == p) {
+                sameHash.add(p);
+            }
+        }
+        return owners;
+    }
+
+    private static int hashRange(int[] values, int length) {
+        int hash = 1;
+        for (int i = 0; i < length; i ++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    /**
+     * @param texture   a texture image's pixels
+     * @param previous  the offset of the previous frame
+     * @param current   the offset of the current frame
+     * @return whether the frames are the same (within `tolerance`)
+     */
+    private boolean matches(int[] texture, int previous, int current) {
+        if (tolerance == 0) {
+            return Arrays.equals(
+                texture, previous, previous + pixelsPerTile, texture, current, current + pixelsPerTile
+            );
+        }
+        for (int i = 0; i < pixelsPerTile; i ++) {
+            int a = texture[previous + i];
+            int b = texture[current + i];
+            if (Math.abs((a >> 16 & 0xff) - (b >> 16 & 0xff)) > tolerance
+                    || Math.abs((a >> 8 & 0xff) - (b >> 8 & 0xff)) > tolerance
+                    || Math.abs((a & 0xff) - (b & 0xff)) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param image a `TYPE_INT_RGB` image
+     * @return the image's pixel buffer
+     */
+    private static int[] pixels(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Only TYPE_INT_RGB images are supported");
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+}
@@ -0,0 +1,47 @@
+package uk.me.msb.cinemashow.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.List;
+
+/**
+ * Exposes the position of an animated sprite's ticker (`TextureAtlasSprite.AnimatedTexture`) so that a baked show that
+ * was frozen can be moved to the frame for the game time (see `ScreenSpriteTicker`).
+ */
+@Mixin(targets = "net.minecraft.client.renderer.texture.TextureAtlasSprite$AnimatedTexture")
+public interface AnimatedTextureAccessor {
+
+    /**
+     * @return the index of the current entry of the animation's frames
+     */
+    @Accessor
+    int getFrame();
+
+    @Accessor
+    void setFrame(int frame);
+
+    /**
+     * @return the number of ticks the current entry has been shown for
+     */
+    @Accessor
+    int getSubFrame();
+
+    @Accessor
+    void setSubFrame(int subFrame);
+
+    /**
+     * @return the animation's frames (each a `FrameInfoAccessor`)
+     */
+    @Accessor
+    List<?> getFrames();
+
+    /**
+     * Uploads a frame of the animation to the sprite's region of the atlas (which must be bound).
+     *
+     * @param frameIndex the index of the frame in the sprite's image
+     */
+    @Invoker
+    void invokeUploadFrame(int frameIndex);
+}
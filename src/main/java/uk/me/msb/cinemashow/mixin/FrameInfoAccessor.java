@@ -0,0 +1,23 @@
+package uk.me.msb.cinemashow.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Exposes an entry of an animated sprite's frames (`TextureAtlasSprite.FrameInfo`).
+ */
+@Mixin(targets = "net.minecraft.client.renderer.texture.TextureAtlasSprite$FrameInfo")
+public interface FrameInfoAccessor {
+
+    /**
+     * @return the index of the frame in the sprite's image
+     */
+    @Accessor
+    int getIndex();
+
+    /**
+     * @return the number of ticks the frame is shown for
+     */
+    @Accessor
+    int getTime();
+}
@@ -0,0 +1,22 @@
+package uk.me.msb.cinemashow.mixin;
+
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.Tickable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+/**
+ * Exposes the tickers of a texture atlas' animated sprites so that the sprites of the baked shows' screens can be
+ * gated (see `ScreenSpriteTicker`).
+ */
+@Mixin(TextureAtlas.class)
+public interface TextureAtlasAccessor {
+
+    /**
+     * @return the atlas' animated sprite tickers (ticked in order by `TextureAtlas.cycleAnimationFrames()`)
+     */
+    @Accessor
+    List<Tickable> getAnimatedTextures();
+}
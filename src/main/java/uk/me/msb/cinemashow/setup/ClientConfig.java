@@ -0,0 +1,45 @@
+package uk.me.msb.cinemashow.setup;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+import uk.me.msb.cinemashow.ShowProperties;
+
+/**
+ * The client side settings of the mod (saved in `cinemashow-client.toml`).
+ */
+public class ClientConfig {
+
+    public static final ForgeConfigSpec SPEC;
+
+    /**
+     * The resolution tier (pixels per block) of the screen textures. The tier's resource pack is enabled when the
+     * resource packs are loaded (the textures built into the mod are 16 pixels per block).
+     */
+    public static final ForgeConfigSpec.IntValue TEXTURE_TIER;
+
+    /**
+     * The distance (in blocks) within which the shows are animated (see `ShowTicker`). The screens of streamed shows
+     * further away aren't drawn at all.
+     */
+    public static final ForgeConfigSpec.IntValue SCREEN_ANIMATION_DISTANCE;
+
+    static {
+        ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+        TEXTURE_TIER = builder
+                .comment(
+                    "The pixels per block of the screen textures (one of the tiers the mod was built with).",
+                    "Lower tiers use less video memory, higher tiers give sharper screens. Requires a restart."
+                )
+                .defineInRange(
+                    "textureTier", ShowProperties.PIXELS_PER_BLOCK, ShowProperties.MIN_TIER, ShowProperties.MAX_TIER
+                );
+        SCREEN_ANIMATION_DISTANCE = builder
+                .comment(
+                    "The distance (in blocks) within which the screens of streamed shows are drawn.",
+                    "Streamed show screens further away are hidden (not drawn at all), not just frozen.",
+                    "A show only animates while one of it's screen blocks is in view and within this distance,",
+                    "the screens of other shows further away are still drawn but frozen."
+                )
+                .defineInRange("screenAnimationDistance", 64, 8, 512);
+        SPEC = builder.build();
+    }
+}
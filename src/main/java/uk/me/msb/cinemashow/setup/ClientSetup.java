@@ -0,0 +1,107 @@
+package uk.me.msb.cinemashow.setup;
+
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.repository.Pack;
+import net.minecraft.server.packs.repository.PackSource;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.EntityRenderersEvent;
+import net.minecraftforge.client.event.ModelEvent;
+import net.minecraftforge.client.event.RegisterClientReloadListenersEvent;
+import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.event.AddPackFindersEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.resource.PathPackResources;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.me.msb.cinemashow.CinemaShow;
+import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.client.ScreenModelLoader;
+import uk.me.msb.cinemashow.client.ScreenRenderer;
+import uk.me.msb.cinemashow.client.ScreenSpriteTicker;
+import uk.me.msb.cinemashow.client.ShowTicker;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Client side setup. The renderer of the streamed shows' screen blocks, the gating of the baked shows' animated
+ * textures (see `ScreenSpriteTicker`) and the loader of the screen block models (see `ScreenModelLoader`) are
+ * registered here. The resource packs of the texture resolution tiers built into the mod are added here: the tier
+ * selected by `ClientConfig.TEXTURE_TIER` is always enabled and the others can be enabled from the resource packs
+ * screen.
+ */
+@Mod.EventBusSubscriber(modid = CinemaShow.MODID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+@SuppressWarnings("unused")
+public class ClientSetup {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    @SubscribeEvent
+    public static void registerRenderers(EntityRenderersEvent.RegisterRenderers event) {
+        event.registerBlockEntityRenderer(Registration.DRAWN_SCREEN_BLOCK_ENTITY.get(), ScreenRenderer::new);
+    }
+
+    /**
+     * The baked shows' animated textures are only ticked while the show is seen.
+     */
+    @SubscribeEvent
+    public static void textureStitched(TextureStitchEvent.Post event) {
+        ScreenSpriteTicker.gate(event.getAtlas());
+    }
+
+    @SubscribeEvent
+    public static void registerGeometryLoaders(ModelEvent.RegisterGeometryLoaders event) {
+        event.register(ScreenModelLoader.NAME, new ScreenModelLoader());
+    }
+
+    /**
+     * The shows' streams are closed when the resources are reloaded (e.g. the mod's resources may have changed).
+     */
+    @SubscribeEvent
+    public static void registerReloadListeners(RegisterClientReloadListenersEvent event) {
+        event.registerReloadListener((ResourceManagerReloadListener) resourceManager -> ShowTicker.closeAll());
+    }
+
+    @SubscribeEvent
+    public static void bakingCompleted(ModelEvent.BakingCompleted event) {
+        ScreenModelLoader.logBakeTime();
+    }
+
+    @SubscribeEvent
+    public static void addPackFinders(AddPackFindersEvent event) {
+        if (event.getPackType() != PackType.CLIENT_RESOURCES) {
+            return;
+        }
+        Path tierPacksDir = ModList.get().getModFileById(CinemaShow.MODID).getFile()
+                .findResource(ShowProperties.TIER_PACKS_DIR);
+        if (!Files.isDirectory(tierPacksDir)) {
+            return;
+        }
+        String selected = String.format(ShowProperties.TIER_PACK_FORMAT, ClientConfig.TEXTURE_TIER.get());
+        try (DirectoryStream<Path> packDirs = Files.newDirectoryStream(tierPacksDir, Files::isDirectory)) {
+            for (Path packDir: packDirs) {
+                // directories in a jar can have a trailing separator
+                String packName = packDir.getFileName().toString().replace("/", "");
+                String id = String.format("%s_%s", CinemaShow.MODID, packName);
+                boolean required = packName.equals(selected);
+                event.addRepositorySource((consumer, constructor) -> {
+                    Pack pack = Pack.create(
+                        id, required, () -> new PathPackResources(id, packDir), constructor,
+                        Pack.Position.TOP, PackSource.BUILT_IN
+                    );
+                    if (pack != null) {
+                        consumer.accept(pack);
+                    }
+                });
+                LOGGER.info("Added texture tier pack: {} (enabled: {})", packName, required);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error listing the texture tier packs", e);
+        }
+    }
+}
@@ -3,14 +3,18 @@ package uk.me.msb.cinemashow.setup;
 import net.minecraft.world.item.CreativeModeTab;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nonnull;
 
 /**
- * The only thing setup here currently is a custom tab for the screen block.
+ * A custom tab for the screen block is setup here and the number of screen block states is logged.
  */
 public class ModSetup {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
     public static final String TAB_NAME = "cinemashow";
 
     public static final CreativeModeTab ITEM_GROUP = new CreativeModeTab(TAB_NAME) {
@@ -21,5 +25,14 @@ public class ModSetup {
     };
 
     public static void init(@SuppressWarnings("unused") FMLCommonSetupEvent event) {
+        // each state is baked and has a neighbour table so this is a measure of the blocks' memory and bake time
+        int states = Registration.BLOCKS.getEntries().stream()
+                .mapToInt(block -> block.get().getStateDefinition().getPossibleStates().size())
+                .sum();
+        Runtime runtime = Runtime.getRuntime();
+        LOGGER.info(
+            "{} screen blocks have {} states (heap used {} MB)", Registration.BLOCKS.getEntries().size(), states,
+            (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024)
+        );
     }
 }
@@ -3,6 +3,7 @@ package uk.me.msb.cinemashow.setup;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.registries.DeferredRegister;
@@ -11,15 +12,14 @@ import net.minecraftforge.registries.RegistryObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.google.gson.Gson;
-
 import uk.me.msb.cinemashow.ShowProperties;
+import uk.me.msb.cinemashow.ShowRegistry;
 import uk.me.msb.cinemashow.block.ScreenBlock;
+import uk.me.msb.cinemashow.block.ScreenBlockEntity;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,9 +36,10 @@ public class Registration {
     public static final Logger LOGGER = LogManager.getLogger();
 
     /**
-     * A map of the metadata for all defined shows keyed on their assign screen block.
+     * A map of the metadata for all defined shows keyed on their assign screen block. This is an immutable snapshot
+     * replaced once by `init()` so it can be read from any thread.
      */
-    public static final Map<String, ShowProperties> SHOW_PROPERTIES = new HashMap<>();
+    private static volatile Map<String, ShowProperties> showProperties = Map.of();
 
     /**
      * A deferred registry of all screen blocks.
@@ -50,53 +51,82 @@ public class Registration {
      */
     public static final DeferredRegister<Item> ITEMS = DeferredRegister.create(ForgeRegistries.ITEMS, MODID);
 
-    public static void init() {
+    /**
+     * A deferred registry of the screen block entity.
+     */
+    public static final DeferredRegister<BlockEntityType<?>> BLOCK_ENTITIES =
+            DeferredRegister.create(ForgeRegistries.BLOCK_ENTITY_TYPES, MODID);
+
+    /**
+     * The block entity of the screen blocks of the shows baked into block models.
+     */
+    public static final RegistryObject<BlockEntityType<ScreenBlockEntity>> SCREEN_BLOCK_ENTITY =
+            BLOCK_ENTITIES.register("screen", () -> BlockEntityType.Builder.of(
+                ScreenBlockEntity::new, screenBlocks(false)
+            ).build(null));
+
+    /**
+     * The block entity of the screen blocks of the streamed shows (a separate type so that only these are
+     * drawn by `ScreenRenderer`).
+     */
+    public static final RegistryObject<BlockEntityType<ScreenBlockEntity>> DRAWN_SCREEN_BLOCK_ENTITY =
+            BLOCK_ENTITIES.register("drawn_screen", () -> BlockEntityType.Builder.of(
+                ScreenBlockEntity::new, screenBlocks(true)
+            ).build(null));
 
-        // Read the show index resource
-        String assetsRoot = String.format("/assets/%s", MODID);
-        List<String> showBlockNames = readShowIndex(assetsRoot);
-
-        LOGGER.info(showBlockNames.toString());
-
-        // Read and cache the `ShowProperties` resource for each show and register the blocks/items.
-        for (String showBlockName: showBlockNames) {
-            String propsName = String.format("%s/%s.json", assetsRoot, showBlockName);
-            InputStream propsStream = Registration.class.getResourceAsStream(propsName);
-            if (propsStream != null) {
-                try {
-                    ShowProperties props = ShowProperties.create(propsStream);
-                    SHOW_PROPERTIES.put(showBlockName, props);
-                    // Note that we pick any of the resulting items for the invertory tab.
-                    TAB_TITLE_ITEM = itemFromBlock(BLOCKS.register(showBlockName, ScreenBlock::new));
-                } catch (IOException e) {
-                    throw new RuntimeException(String.format("Error parsing %s", propsName), e);
-                }
+    public static void init() {
+        long start = System.nanoTime();
+
+        // Read the precompiled show registry and register the blocks/items.
+        String registryName = String.format("/assets/%s/%s", MODID, ShowRegistry.REGISTRY_FILENAME);
+        final List<ShowProperties> shows;
+        try (InputStream registryStream = Registration.class.getResourceAsStream(registryName)) {
+            if (registryStream == null) {
+                throw new RuntimeException(String.format("Error reading resource: %s", registryName));
             }
+            shows = ShowRegistry.read(registryStream);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Error parsing %s", registryName), e);
         }
 
-        LOGGER.info(SHOW_PROPERTIES.toString());
+        Map<String, ShowProperties> loaded = new LinkedHashMap<>();
+        for (ShowProperties props: shows) {
+            loaded.put(props.getBlockName(), props);
+            // Note that we pick any of the resulting items for the invertory tab.
+            TAB_TITLE_ITEM = itemFromBlock(BLOCKS.register(props.getBlockName(), () -> new ScreenBlock(props)));
+        }
+        showProperties = Map.copyOf(loaded);
+
+        LOGGER.info(loaded.keySet().toString());
+        LOGGER.info(
+            "Registered {} shows in {} ms", shows.size(), (System.nanoTime() - start) / 1_000_000
+        );
 
         IEventBus bus = FMLJavaModLoadingContext.get().getModEventBus();
         // register the deferred registries
         BLOCKS.register(bus);
         ITEMS.register(bus);
+        BLOCK_ENTITIES.register(bus);
     }
 
     /**
-     * Read the show index resource file from the mod's asset's root.
-     * 
-     * @param assetsRoot the mod's resource asset root.
-     * @return a list of show block names
+     * @param streamed whether to return the screen blocks of the streamed shows (drawn by a block entity renderer) or
+     *                 the others
+     * @return the screen blocks (only valid once the blocks are registered)
      */
-    private static List<String> readShowIndex(String assetsRoot) {
-        String showIndex = String.format("%s/%s", assetsRoot, ShowProperties.SHOWINDEX_FILENAME);
-        InputStream showsInput = Registration.class.getResourceAsStream(showIndex);
-        if (showsInput == null) {
-            throw new RuntimeException(String.format("Error reading resource: %s", showIndex));
-        }
-        @SuppressWarnings("unchecked")
-        List<String> showBlockNames = (new Gson()).fromJson(new InputStreamReader(showsInput), List.class);
-        return showBlockNames;
+    private static Block[] screenBlocks(boolean streamed) {
+        return BLOCKS.getEntries().stream()
+                .map(RegistryObject::get)
+                .filter(block -> ((ScreenBlock) block).getShowProperties().isStreamed() == streamed)
+                .toArray(Block[]::new);
+    }
+
+    /**
+     * @param blockName a screen block's name
+     * @return the show's metadata (or null if there is no such show)
+     */
+    public static ShowProperties getShowProperties(String blockName) {
+        return showProperties.get(blockName);
     }
 
     /**
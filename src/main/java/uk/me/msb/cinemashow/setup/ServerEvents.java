@@ -0,0 +1,34 @@
+package uk.me.msb.cinemashow.setup;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.level.ChunkDataEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import uk.me.msb.cinemashow.CinemaShow;
+import uk.me.msb.cinemashow.block.ScreenIndex;
+import uk.me.msb.cinemashow.block.ScreenStateMigration;
+
+/**
+ * Game events handled on the server. The tile positions of a loaded chunk's screens saved as block state properties are
+ * migrated to their block entities (see `ScreenStateMigration`) and the screens of a loaded chunk are reconciled with
+ * the level's `ScreenIndex` here.
+ */
+@Mod.EventBusSubscriber(modid = CinemaShow.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+@SuppressWarnings("unused")
+public class ServerEvents {
+
+    @SubscribeEvent
+    public static void onChunkDataLoad(ChunkDataEvent.Load event) {
+        ScreenStateMigration.migrate(event.getChunk(), event.getData());
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk) {
+            // the event can be fired off the server thread
+            level.getServer().execute(() -> ScreenIndex.get(level).reconcile(chunk));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package uk.me.msb.cinemashow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Unit tests related to `ShowRegistry`
+ */
+public class ShowRegistryTest {
+    /**
+     * Tests that the properties read from a registry match those written to it.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        ShowProperties first = create("{\"showName\": \"The First Show\", \"blocksX\": 4, \"blocksY\": 3}");
+        first.setSharedTexture(1, 2, first.getTileTexture(0, 0));
+        ShowProperties second = create("{\"showName\": \"Another\", \"frameTime\": 5, \"blocksY\": 2, \"playback\": \"stream\"}");
+        ShowProperties third = create(
+            "{\"showName\": \"Wall\", \"blocksX\": 10, \"playback\": \"stream\", \"container\": \"raw\"}"
+        );
+        Assertions.assertEquals(ContainerEncoding.RAW, third.getContainerEncoding());
+        Assertions.assertNull(second.getContainerEncoding());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ShowRegistry.write(output, List.of(first, second, third));
+        List<ShowProperties> shows = ShowRegistry.read(new ByteArrayInputStream(output.toByteArray()));
+
+        Assertions.assertEquals(3, shows.size());
+        Assertions.assertTrue(shows.get(1).isStreamed());
+        Assertions.assertTrue(shows.get(2).isStreamed());
+        List<ShowProperties> written = List.of(first, second, third);
+        for (int i = 0; i < shows.size(); i ++) {
+            ShowProperties expected = written.get(i);
+            ShowProperties actual = shows.get(i);
+            Assertions.assertEquals(expected.getBlockName(), actual.getBlockName());
+            Assertions.assertEquals(expected.getShowName(), actual.getShowName());
+            Assertions.assertEquals(expected.getFrameTime(), actual.getFrameTime());
+            Assertions.assertEquals(expected.getBlocksX(), actual.getBlocksX());
+            Assertions.assertEquals(expected.getBlocksY(), actual.getBlocksY());
+            Assertions.assertEquals(expected.getMcmeta(), actual.getMcmeta());
+            Assertions.assertEquals(expected.isStreamed(), actual.isStreamed());
+        }
+        Assertions.assertEquals("show_the_first_show_0_0", shows.get(0).getTileTexture(1, 2));
+        Assertions.assertEquals("show_the_first_show_2_1", shows.get(0).getTileTexture(2, 1));
+    }
+
+    /**
+     * Tests that a file that isn't a registry is rejected.
+     */
+    @Test
+    public void testNotARegistry() {
+        byte[] json = "[\"show_a\"]".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertThrows(IOException.class, () -> ShowRegistry.read(new ByteArrayInputStream(json)));
+    }
+
+    /**
+     * Tests that an unknown playback is rejected.
+     */
+    @Test
+    public void testUnknownPlayback() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class, () -> create("{\"showName\": \"Bad\", \"playback\": \"tape\"}")
+        );
+    }
+
+    /**
+     * Tests that an unknown container encoding is rejected.
+     */
+    @Test
+    public void testUnknownContainer() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> create("{\"showName\": \"Bad\", \"playback\": \"stream\", \"container\": \"zip\"}")
+        );
+    }
+
+    private static ShowProperties create(String json) throws IOException {
+        return ShowProperties.create(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,63 @@
+package uk.me.msb.cinemashow;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests related to `TileIterableIterator`
+ */
+public class TileIterableIteratorTest {
+    /**
+     * Tests that the positions are iterated row by row, that they can be iterated again and that
+     * each position's index matches it's place in the iteration.
+     */
+    @Test
+    public void testIterate() throws IOException {
+        TileIterableIterator tiles = new TileIterableIterator(create(3, 2));
+        List<Point> positions = new ArrayList<>();
+        tiles.forEach(positions::add);
+        Assertions.assertEquals(
+            List.of(
+                new Point(0, 0), new Point(1, 0), new Point(2, 0),
+                new Point(0, 1), new Point(1, 1), new Point(2, 1)
+            ),
+            positions
+        );
+        List<Point> again = new ArrayList<>();
+        for (Point position: tiles) {
+            again.add(position);
+        }
+        Assertions.assertEquals(positions, again);
+        for (int p = 0; p < positions.size(); p ++) {
+            Assertions.assertEquals(p, tiles.indexOf(positions.get(p)));
+        }
+    }
+
+    /**
+     * Tests that a parallel stream covers every position once (in order when collected).
+     */
+    @Test
+    public void testParallel() throws IOException {
+        TileIterableIterator tiles = new TileIterableIterator(create(64, 37));
+        List<Point> expected = new ArrayList<>();
+        tiles.forEach(expected::add);
+        Assertions.assertEquals(64 * 37, tiles.size());
+        Assertions.assertEquals(expected, tiles.parallelStream().collect(Collectors.toList()));
+        Assertions.assertEquals(expected.size(), tiles.parallelStream().map(tiles::indexOf).distinct().count());
+    }
+
+    private static ShowProperties create(int blocksX, int blocksY) throws IOException {
+        String json = String.format(
+            "{\"showName\": \"Tiles\", \"frameTime\": 5, \"blocksX\": %d, \"blocksY\": %d}", blocksX, blocksY
+        );
+        return ShowProperties.create(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -33,6 +33,41 @@ public class FacingTest {
         Assertions.assertEquals(0, remaining.size());
     }
 
+    /**
+     * Tests/defines the behaviour of `Facing.getFacingForRotation()`
+     */
+    @Test
+    public void testGetFacingForRotation() {
+        Assertions.assertEquals(Facing.SOUTH, Facing.getFacingForRotation(0, 0));
+        Assertions.assertEquals(Facing.WEST, Facing.getFacingForRotation(0, 90));
+        Assertions.assertEquals(Facing.NORTH, Facing.getFacingForRotation(40, 180));
+        Assertions.assertEquals(Facing.EAST, Facing.getFacingForRotation(-40, -90));
+        Assertions.assertEquals(Facing.SOUTH_DOWN, Facing.getFacingForRotation(90, 0));
+        Assertions.assertEquals(Facing.NORTH_UP, Facing.getFacingForRotation(-60, 180));
+        // looking diagonally the horizontal component is shorter so vertical wins at a shallower pitch
+        Assertions.assertEquals(Facing.SOUTH, Facing.getFacingForRotation(40, 0));
+        Assertions.assertEquals(Facing.SOUTH_DOWN, Facing.getFacingForRotation(40, 40));
+        // at exactly 45 degrees between two directions `NORTH` or `SOUTH` is chosen (as by `orderedByNearest()`)
+        Assertions.assertEquals(Facing.SOUTH, Facing.getFacingForRotation(0, 45));
+        Assertions.assertEquals(Facing.SOUTH, Facing.getFacingForRotation(0, -45));
+        Assertions.assertEquals(Facing.NORTH, Facing.getFacingForRotation(0, 135));
+        Assertions.assertEquals(Facing.NORTH_DOWN, Facing.getFacingForRotation(40, -135));
+    }
+
+    /**
+     * Tests/defines the block model rotations of `Facing` values
+     */
+    @Test
+    public void testGetRotation() {
+        Assertions.assertEquals(0, Facing.NORTH.getRotationX());
+        Assertions.assertEquals(0, Facing.NORTH.getRotationY());
+        Assertions.assertEquals(90, Facing.EAST.getRotationY());
+        Assertions.assertEquals(180, Facing.SOUTH_DOWN.getRotationY());
+        Assertions.assertEquals(90, Facing.SOUTH_DOWN.getRotationX());
+        Assertions.assertEquals(270, Facing.WEST_UP.getRotationY());
+        Assertions.assertEquals(270, Facing.WEST_UP.getRotationX());
+    }
+
     /**
      * Helper method to assert that a `Facing` and it's opposite match.
      *
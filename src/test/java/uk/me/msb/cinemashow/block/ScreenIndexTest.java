@@ -0,0 +1,88 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.me.msb.cinemashow.ShowProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests related to `ScreenIndex`
+ */
+public class ScreenIndexTest {
+
+    /**
+     * A `NORTH` facing screen extends to the west and up and crosses a chunk boundary.
+     */
+    private static final BlockPos ORIGIN = new BlockPos(17, 64, 3);
+
+    /**
+     * Tests that the tiles of a screen being built are found by position and area.
+     */
+    @Test
+    public void testPutAndRemove() throws IOException {
+        ShowProperties props = create("{\"showName\": \"Test\", \"blocksX\": 3, \"blocksY\": 2}");
+        ScreenIndex index = new ScreenIndex();
+        index.put(ORIGIN, props, Facing.NORTH, 0, 1);
+        index.put(ORIGIN.west(), props, Facing.NORTH, 1, 1);
+        index.put(ORIGIN.west(2), props, Facing.NORTH, 2, 1);
+        index.put(ORIGIN.west().above(), props, Facing.NORTH, 1, 0);
+
+        ScreenIndex.Tile tile = index.getTile(ORIGIN.west().above());
+        Assertions.assertNotNull(tile);
+        Assertions.assertEquals(1, tile.x());
+        Assertions.assertEquals(0, tile.y());
+        ScreenIndex.Screen screen = tile.screen();
+        Assertions.assertEquals(1, index.getScreens().size());
+        Assertions.assertEquals(ORIGIN, screen.getId().origin());
+        Assertions.assertEquals(ORIGIN.west(2), screen.getTilePos(2, 1));
+        Assertions.assertEquals(4, screen.getTileCount());
+        Assertions.assertFalse(screen.isComplete());
+        index.put(ORIGIN.above(), props, Facing.NORTH, 0, 0);
+        index.put(ORIGIN.west(2).above(), props, Facing.NORTH, 2, 0);
+        Assertions.assertTrue(screen.isComplete());
+
+        // a second screen facing the other way
+        BlockPos other = ORIGIN.south(40);
+        index.put(other, props, Facing.SOUTH, 0, 1);
+        Assertions.assertEquals(2, index.getScreens().size());
+        Assertions.assertEquals(1, index.getScreens(new BoundingBox(0, 0, 0, 16, 100, 10)).size());
+        Assertions.assertEquals(2, index.getScreens(new BoundingBox(0, 0, 0, 20, 100, 50)).size());
+
+        index.remove(other);
+        Assertions.assertNull(index.getTile(other));
+        Assertions.assertEquals(1, index.getScreens().size());
+    }
+
+    /**
+     * Tests that a saved index is read back with the same tiles.
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        ShowProperties props = create("{\"showName\": \"Test\", \"blocksX\": 3, \"blocksY\": 2}");
+        ScreenIndex index = new ScreenIndex();
+        index.put(ORIGIN, props, Facing.NORTH, 0, 1);
+        index.put(ORIGIN.west(2).above(), props, Facing.NORTH, 2, 0);
+
+        CompoundTag tag = index.save(new CompoundTag());
+        ScreenIndex loaded = ScreenIndex.load(tag, name -> props.getBlockName().equals(name) ? props : null);
+        ScreenIndex.Tile tile = loaded.getTile(ORIGIN.west(2).above());
+        Assertions.assertNotNull(tile);
+        Assertions.assertEquals(2, tile.x());
+        Assertions.assertEquals(0, tile.y());
+        Assertions.assertEquals(2, tile.screen().getTileCount());
+        Assertions.assertNull(loaded.getTile(ORIGIN.west()));
+
+        // the screens of removed shows are dropped
+        Assertions.assertTrue(ScreenIndex.load(tag, name -> null).getScreens().isEmpty());
+    }
+
+    private static ShowProperties create(String json) throws IOException {
+        return ShowProperties.create(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
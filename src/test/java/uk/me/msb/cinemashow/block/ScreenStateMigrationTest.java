@@ -0,0 +1,187 @@
+package uk.me.msb.cinemashow.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests related to `ScreenStateMigration`
+ */
+public class ScreenStateMigrationTest {
+
+    private static final ChunkPos CHUNK = new ChunkPos(2, -1);
+
+    private static final String SCREEN = "cinemashow:test";
+
+    private static final String SCREEN_ENTITY = "cinemashow:screen";
+
+    /**
+     * Tests that the screen blocks with the old tile position properties are found in sections packed with different
+     * numbers of bits per block (including a single entry palette, which has no data) and that the tile positions are
+     * moved into the blocks' entity tags.
+     */
+    @Test
+    public void testMigrate() {
+        ListTag sections = new ListTag();
+
+        // a single entry palette: every block of the section is the screen block
+        ListTag single = new ListTag();
+        single.add(screenState(2, 1));
+        sections.add(section(4, single, null));
+
+        // 4 bits per block (the minimum)
+        ListTag small = new ListTag();
+        small.add(state("minecraft:air"));
+        small.add(screenState(0, 0));
+        small.add(state("minecraft:stone"));
+        int[] smallIndexes = new int[4096];
+        smallIndexes[0] = 1;
+        smallIndexes[index(5, 3, 7)] = 1;
+        smallIndexes[4095] = 2;
+        sections.add(section(0, small, pack(smallIndexes, 4)));
+
+        // 5 bits per block (which leaves unused bits in each long)
+        ListTag medium = new ListTag();
+        for (int p = 0; p < 19; p ++) {
+            medium.add(state("minecraft:stone"));
+        }
+        medium.add(screenState(3, 2));
+        int[] mediumIndexes = new int[4096];
+        mediumIndexes[index(15, 15, 15)] = 19;
+        mediumIndexes[index(11, 0, 1)] = 19;
+        mediumIndexes[index(12, 0, 1)] = 18;
+        sections.add(section(1, medium, pack(mediumIndexes, 5)));
+
+        // 9 bits per block, in a section below zero
+        ListTag large = new ListTag();
+        for (int p = 0; p < 300; p ++) {
+            large.add(p == 257 ? screenState(63, 40) : state("minecraft:stone"));
+        }
+        int[] largeIndexes = new int[4096];
+        largeIndexes[index(1, 2, 3)] = 257;
+        largeIndexes[index(1, 2, 4)] = 256;
+        sections.add(section(-2, large, pack(largeIndexes, 9)));
+
+        // a screen block with a saved block entity tag (merged)
+        CompoundTag saved = new CompoundTag();
+        BlockPos savedPos = CHUNK.getBlockAt(5, 3, 7);
+        saved.putString("id", "cinemashow:old");
+        saved.putInt("x", savedPos.getX());
+        saved.putInt("y", savedPos.getY());
+        saved.putInt("z", savedPos.getZ());
+        ListTag blockEntities = new ListTag();
+        blockEntities.add(saved);
+
+        CompoundTag data = new CompoundTag();
+        data.put("sections", sections);
+        data.put("block_entities", blockEntities);
+
+        Map<BlockPos, CompoundTag> added = new HashMap<>();
+        int migrated = ScreenStateMigration.migrate(
+            CHUNK, data, name -> name.equals(new ResourceLocation(SCREEN)) ? SCREEN_ENTITY : null,
+            tag -> Assertions.assertNull(added.put(
+                new BlockPos(tag.getInt("x"), tag.getInt("y"), tag.getInt("z")), tag
+            ))
+        );
+
+        Assertions.assertEquals(4096 + 2 + 2 + 1, migrated);
+        Assertions.assertEquals(migrated - 1, added.size());
+        assertTile(added.get(CHUNK.getBlockAt(0, 64, 0)), 2, 1);
+        assertTile(added.get(CHUNK.getBlockAt(15, 79, 15)), 2, 1);
+        assertTile(added.get(CHUNK.getBlockAt(0, 0, 0)), 0, 0);
+        Assertions.assertNull(added.get(CHUNK.getBlockAt(15, 15, 15)));
+        assertTile(added.get(CHUNK.getBlockAt(15, 31, 15)), 3, 2);
+        assertTile(added.get(CHUNK.getBlockAt(11, 16, 1)), 3, 2);
+        Assertions.assertNull(added.get(CHUNK.getBlockAt(12, 16, 1)));
+        assertTile(added.get(CHUNK.getBlockAt(1, -30, 3)), 63, 40);
+        Assertions.assertNull(added.get(CHUNK.getBlockAt(1, -30, 4)));
+
+        // the saved tag was updated in place
+        Assertions.assertNull(added.get(savedPos));
+        assertTile(saved, 0, 0);
+        Assertions.assertEquals(savedPos.getX(), saved.getInt("x"));
+    }
+
+    /**
+     * Tests that a section whose packed data is too short is skipped.
+     */
+    @Test
+    public void testTruncated() {
+        ListTag palette = new ListTag();
+        palette.add(state("minecraft:air"));
+        palette.add(screenState(0, 0));
+        ListTag sections = new ListTag();
+        sections.add(section(0, palette, new long[10]));
+        CompoundTag data = new CompoundTag();
+        data.put("sections", sections);
+
+        Assertions.assertEquals(0, ScreenStateMigration.migrate(
+            CHUNK, data, name -> SCREEN_ENTITY, tag -> Assertions.fail("Unexpected block entity")
+        ));
+    }
+
+    private static void assertTile(CompoundTag tag, int x, int y) {
+        Assertions.assertNotNull(tag);
+        Assertions.assertEquals(SCREEN_ENTITY, tag.getString("id"));
+        Assertions.assertEquals(x, tag.getInt(ScreenBlockEntity.TAG_TILE_X));
+        Assertions.assertEquals(y, tag.getInt(ScreenBlockEntity.TAG_TILE_Y));
+    }
+
+    /**
+     * @return the index of a block in a section (ordered y, z, x)
+     */
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+
+    /**
+     * Packs a section's palette indexes as a chunk saves them: each long holds as many whole indexes as fit, from the
+     * lowest bits.
+     */
+    private static long[] pack(int[] indexes, int bits) {
+        int perLong = Long.SIZE / bits;
+        long[] packed = new long[(indexes.length + perLong - 1) / perLong];
+        for (int i = 0; i < indexes.length; i ++) {
+            packed[i / perLong] |= (long) indexes[i] << (i % perLong) * bits;
+        }
+        return packed;
+    }
+
+    private static CompoundTag section(int y, ListTag palette, long[] packed) {
+        CompoundTag blockStates = new CompoundTag();
+        blockStates.put("palette", palette);
+        if (packed != null) {
+            blockStates.putLongArray("data", packed);
+        }
+        CompoundTag section = new CompoundTag();
+        section.putByte("Y", (byte) y);
+        section.put("block_states", blockStates);
+        return section;
+    }
+
+    private static CompoundTag state(String name) {
+        CompoundTag state = new CompoundTag();
+        state.putString("Name", name);
+        return state;
+    }
+
+    /**
+     * @return a screen block state saved with the old tile position properties
+     */
+    private static CompoundTag screenState(int x, int y) {
+        CompoundTag properties = new CompoundTag();
+        properties.putString("facing", "north");
+        properties.putString("x", String.valueOf(x));
+        properties.putString("y", String.valueOf(y));
+        CompoundTag state = state(SCREEN);
+        state.put("Properties", properties);
+        return state;
+    }
+}
@@ -0,0 +1,184 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests related to `ApngFrameSource`
+ */
+public class ApngFrameSourceTest {
+
+    private static final int RED = 0xffff0000;
+    private static final int GREEN = 0xff00ff00;
+    private static final int BLUE = 0xff0000ff;
+    private static final int WHITE = 0xffffffff;
+    private static final int CLEAR = 0;
+
+    private static final int DISPOSE_OP_NONE = 0;
+    private static final int DISPOSE_OP_BACKGROUND = 1;
+    private static final int DISPOSE_OP_PREVIOUS = 2;
+    private static final int BLEND_OP_SOURCE = 0;
+    private static final int BLEND_OP_OVER = 1;
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Tests that an APNG's frames are found from it's frame control chunks and composited according to each frame's
+     * blend and dispose operations.
+     */
+    @Test
+    public void testFrames() throws IOException {
+        File file = new File(tempDir, "show.png");
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(file))) {
+            ApngBuilder apng = new ApngBuilder(output, 4, 4, 4);
+            // the default image is the first frame
+            apng.frame(image(4, 4, RED), 0, 0, 1, 10, DISPOSE_OP_NONE, BLEND_OP_SOURCE, true);
+            // drawn over the first frame then restored to it
+            apng.frame(image(2, 2, GREEN, CLEAR, CLEAR, CLEAR), 1, 1, 5, 100, DISPOSE_OP_PREVIOUS, BLEND_OP_OVER, false);
+            // replaces its region then cleared
+            apng.frame(image(2, 2, BLUE, CLEAR, CLEAR, CLEAR), 2, 2, 1, 5, DISPOSE_OP_BACKGROUND, BLEND_OP_SOURCE, false);
+            // no delay
+            apng.frame(image(1, 1, WHITE), 0, 0, 0, 100, DISPOSE_OP_NONE, BLEND_OP_OVER, false);
+            apng.end();
+        }
+        Assertions.assertTrue(ApngFrameSource.isApng(file));
+
+        ApngFrameSource source = new ApngFrameSource(file, 7);
+        List<FrameHeader> headers = source.headers();
+        Assertions.assertEquals(4, headers.size());
+        Assertions.assertArrayEquals(
+            new int[] {2, 1, 4, 7}, headers.stream().mapToInt(FrameHeader::time).toArray()
+        );
+        Assertions.assertEquals(4, headers.get(0).width());
+        Assertions.assertEquals(4, headers.get(0).height());
+
+        List<int[]> frames = new ArrayList<>();
+        source.forEach((image, header) -> frames.add(image.getRGB(0, 0, 4, 4, null, 0, 4)));
+        Assertions.assertEquals(4, frames.size());
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+        }, frames.get(0));
+        // the clear pixels are blended over the canvas
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, GREEN, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+        }, frames.get(1));
+        // the previous frame was restored and the clear pixels replace the canvas
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, BLUE, CLEAR,
+            RED, RED, CLEAR, CLEAR,
+        }, frames.get(2));
+        // the previous frame's region was cleared to the background
+        Assertions.assertArrayEquals(new int[] {
+            WHITE, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, CLEAR, CLEAR,
+            RED, RED, CLEAR, CLEAR,
+        }, frames.get(3));
+    }
+
+    /**
+     * Tests that a plain PNG isn't taken for an APNG.
+     */
+    @Test
+    public void testNotApng() throws IOException {
+        File file = new File(tempDir, "plain.png");
+        ImageIO.write(image(1, 1, RED), "png", file);
+        Assertions.assertFalse(ApngFrameSource.isApng(file));
+    }
+
+    /**
+     * @return an image filled with the given pixels (the last is repeated)
+     */
+    private static BufferedImage image(int width, int height, int... pixels) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < width * height; i ++) {
+            image.setRGB(i % width, i / width, pixels[Math.min(i, pixels.length - 1)]);
+        }
+        return image;
+    }
+
+    /**
+     * Writes an APNG a frame at a time. Each frame's image data is taken from the frame encoded as a PNG by ImageIO.
+     */
+    private static class ApngBuilder {
+
+        private final DataOutputStream output;
+
+        private int sequence = 0;
+
+        ApngBuilder(DataOutputStream output, int width, int height, int frameCount) throws IOException {
+            this.output = output;
+            output.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+            ByteBuffer header = ByteBuffer.allocate(13);
+            // 8 bit RGBA (as ImageIO writes `TYPE_INT_ARGB`)
+            header.putInt(width).putInt(height).put((byte) 8).put((byte) 6);
+            chunk("IHDR", header.array());
+            chunk("acTL", ByteBuffer.allocate(8).putInt(frameCount).putInt(0).array());
+        }
+
+        void frame(
+            BufferedImage image, int x, int y, int delayNumerator, int delayDenominator, int disposeOp, int blendOp,
+            boolean defaultImage
+        ) throws IOException {
+            chunk("fcTL", ByteBuffer.allocate(26)
+                .putInt(sequence ++).putInt(image.getWidth()).putInt(image.getHeight()).putInt(x).putInt(y)
+                .putShort((short) delayNumerator).putShort((short) delayDenominator)
+                .put((byte) disposeOp).put((byte) blendOp).array());
+            byte[] data = imageData(image);
+            if (defaultImage) {
+                chunk("IDAT", data);
+            } else {
+                chunk("fdAT", ByteBuffer.allocate(4 + data.length).putInt(sequence ++).put(data).array());
+            }
+        }
+
+        void end() throws IOException {
+            chunk("IEND", new byte[0]);
+        }
+
+        private void chunk(String type, byte[] data) throws IOException {
+            PngEncoder.writeChunk(output, type, data, 0, data.length);
+        }
+
+        /**
+         * @return the concatenated `IDAT` data of an image encoded as a PNG
+         */
+        private static byte[] imageData(BufferedImage image) throws IOException {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(png.toByteArray()));
+            input.skipNBytes(8);
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            while (input.available() > 0) {
+                byte[] chunk = new byte[input.readInt()];
+                byte[] type = new byte[4];
+                input.readFully(type);
+                input.readFully(chunk);
+                input.readInt();
+                if (new String(type, StandardCharsets.US_ASCII).equals("IDAT")) {
+                    data.write(chunk);
+                }
+            }
+            return data.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests related to `GifFrameSource`
+ */
+public class GifFrameSourceTest {
+
+    private static final int RED = 0xffff0000;
+    private static final int GREEN = 0xff00ff00;
+    private static final int BLUE = 0xff0000ff;
+    private static final int WHITE = 0xffffffff;
+    private static final int CLEAR = 0;
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Tests that a GIF's frames are found from it's metadata and composited according to each frame's disposal
+     * method.
+     */
+    @Test
+    public void testFrames() throws IOException {
+        File file = new File(tempDir, "show.gif");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            writeFrame(writer, image(4, 4, RED), 0, 0, 10, "doNotDispose");
+            // drawn over the first frame then restored to it
+            writeFrame(writer, image(2, 2, GREEN), 1, 1, 5, "restoreToPrevious");
+            // cleared to the background after it's shown
+            writeFrame(writer, image(2, 2, BLUE), 2, 2, 20, "restoreToBackgroundColor");
+            // no delay
+            writeFrame(writer, image(1, 1, WHITE), 0, 0, 0, "none");
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        Assertions.assertTrue(GifFrameSource.isAnimatedGif(file));
+
+        GifFrameSource source = new GifFrameSource(file, 7);
+        List<FrameHeader> headers = source.headers();
+        Assertions.assertEquals(4, headers.size());
+        Assertions.assertArrayEquals(
+            new int[] {2, 1, 4, 7}, headers.stream().mapToInt(FrameHeader::time).toArray()
+        );
+        Assertions.assertEquals(4, headers.get(0).width());
+        Assertions.assertEquals(4, headers.get(0).height());
+
+        List<int[]> frames = new ArrayList<>();
+        source.forEach((image, header) -> frames.add(image.getRGB(0, 0, 4, 4, null, 0, 4)));
+        Assertions.assertEquals(4, frames.size());
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+        }, frames.get(0));
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, GREEN, GREEN, RED,
+            RED, GREEN, GREEN, RED,
+            RED, RED, RED, RED,
+        }, frames.get(1));
+        // the previous frame was restored
+        Assertions.assertArrayEquals(new int[] {
+            RED, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, BLUE, BLUE,
+            RED, RED, BLUE, BLUE,
+        }, frames.get(2));
+        // the previous frame's region was cleared to the background
+        Assertions.assertArrayEquals(new int[] {
+            WHITE, RED, RED, RED,
+            RED, RED, RED, RED,
+            RED, RED, CLEAR, CLEAR,
+            RED, RED, CLEAR, CLEAR,
+        }, frames.get(3));
+    }
+
+    /**
+     * Tests that a single frame GIF isn't taken for an animation.
+     */
+    @Test
+    public void testNotAnimated() throws IOException {
+        File file = new File(tempDir, "still.gif");
+        ImageIO.write(image(1, 1, RED), "gif", file);
+        Assertions.assertFalse(GifFrameSource.isAnimatedGif(file));
+    }
+
+    /**
+     * @return an image filled with a colour
+     */
+    private static BufferedImage image(int width, int height, int rgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y ++) {
+            for (int x = 0; x < width; x ++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Writes a frame of a GIF at a position with a delay (in hundredths of a second) and disposal method.
+     */
+    private static void writeFrame(
+        ImageWriter writer, BufferedImage image, int x, int y, int delay, String disposal
+    ) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+        IIOMetadataNode descriptor = (IIOMetadataNode) root.getElementsByTagName("ImageDescriptor").item(0);
+        descriptor.setAttribute("imageLeftPosition", String.valueOf(x));
+        descriptor.setAttribute("imageTopPosition", String.valueOf(y));
+        IIOMetadataNode control = (IIOMetadataNode) root.getElementsByTagName("GraphicControlExtension").item(0);
+        control.setAttribute("disposalMethod", disposal);
+        control.setAttribute("delayTime", String.valueOf(delay));
+        metadata.setFromTree(format, root);
+        writer.writeToSequence(new IIOImage(image, null, metadata), null);
+    }
+}
@@ -0,0 +1,56 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Unit tests related to `ImageScaler`
+ */
+public class ImageScalerTest {
+
+    /**
+     * Tests that nearest neighbour scaling matches `Image.getScaledInstance(..., SCALE_REPLICATE)`
+     * drawn into a `TYPE_INT_RGB` image (the scaling previously used) for different image types.
+     */
+    @Test
+    public void testNearestMatchesReplicate() {
+        Random random = new Random(0);
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_ARGB};
+        for (int type: types) {
+            BufferedImage image = new BufferedImage(641, 479, type);
+            for (int y = 0; y < image.getHeight(); y ++) {
+                for (int x = 0; x < image.getWidth(); x ++) {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+            Image replicated = image.getScaledInstance(80, 59, Image.SCALE_REPLICATE);
+            BufferedImage expected = new BufferedImage(80, 59, BufferedImage.TYPE_INT_RGB);
+            expected.getGraphics().drawImage(replicated, 0, 0, null);
+
+            PngEncoderTest.assertPixelsEqual(expected, new ImageScaler(ScaleFilter.NEAREST).scale(image, 80, 59));
+        }
+    }
+
+    /**
+     * Tests that every filter preserves a uniform colour.
+     */
+    @Test
+    public void testUniformColour() {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        graphics.setColor(new Color(0x336699));
+        graphics.fillRect(0, 0, 300, 200);
+        for (ScaleFilter filter: ScaleFilter.values()) {
+            BufferedImage scaled = new ImageScaler(filter).scale(image, 47, 31);
+            for (int y = 0; y < scaled.getHeight(); y ++) {
+                for (int x = 0; x < scaled.getWidth(); x ++) {
+                    Assertions.assertEquals(0x336699, scaled.getRGB(x, y) & 0xffffff);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Unit tests related to `PngEncoder`
+ */
+public class PngEncoderTest {
+
+    /**
+     * Tests that a texture image large enough to be deflated as several blocks can be read back
+     * unchanged in each mode.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(0);
+        BufferedImage image = new BufferedImage(16, 16 * 1000, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y ++) {
+            for (int x = 0; x < image.getWidth(); x ++) {
+                // a mix of noise and gradients to exercise all the filters
+                image.setRGB(x, y, (y / 32) % 3 == 0 ? random.nextInt() : x * y);
+            }
+        }
+        for (PngMode mode: PngMode.values()) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            new PngEncoder(mode).write(image, output);
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(output.toByteArray()));
+            assertPixelsEqual(image, decoded);
+        }
+    }
+
+    /**
+     * Helper method to assert that two images have the same RGB pixels.
+     *
+     * @param expected the expected image
+     * @param actual the actual image
+     */
+    public static void assertPixelsEqual(BufferedImage expected, BufferedImage actual) {
+        Assertions.assertEquals(expected.getWidth(), actual.getWidth());
+        Assertions.assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y ++) {
+            for (int x = 0; x < expected.getWidth(); x ++) {
+                Assertions.assertEquals(expected.getRGB(x, y) & 0xffffff, actual.getRGB(x, y) & 0xffffff);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package uk.me.msb.cinemashow.gentextures;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.me.msb.cinemashow.ContainerEncoding;
+import uk.me.msb.cinemashow.ShowContainer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests related to `ShowContainerWriter`
+ */
+public class ShowContainerWriterTest {
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Tests that the frames read from a container match the tiles written to it for each encoding.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (ContainerEncoding encoding: ContainerEncoding.values()) {
+            File file = new File(tempDir, encoding + ".show");
+            Random random = new Random(3);
+            Point offset = new Point(1, 4);
+            BufferedImage[] frames = new BufferedImage[3];
+            try (ShowContainerWriter writer = new ShowContainerWriter(
+                file, encoding, 2, 16, 3, 2, new int[] {5, 7, 9}
+            )) {
+                for (int i = 0; i < frames.length; i ++) {
+                    frames[i] = new BufferedImage(50, 40, BufferedImage.TYPE_INT_RGB);
+                    for (int y = 0; y < 40; y ++) {
+                        for (int x = 0; x < 50; x ++) {
+                            frames[i].setRGB(x, y, random.nextInt(4) * 0x404040 + x);
+                        }
+                    }
+                    writer.write(frames[i], offset);
+                }
+            }
+
+            ShowContainer container = ShowContainer.open(file.toPath());
+            Assertions.assertEquals(encoding, container.getEncoding());
+            Assertions.assertEquals(3, container.getFrameCount());
+            Assertions.assertEquals(9, container.getFrameTime(2));
+            byte[] pixels = new byte[container.getFrameLength()];
+            // read out of order to check records are independent
+            for (int i = frames.length - 1; i >= 0; i --) {
+                container.readFrame(i, pixels);
+                int p = 0;
+                for (int tileY = 0; tileY < 2; tileY ++) {
+                    for (int tileX = 0; tileX < 3; tileX ++) {
+                        for (int row = 0; row < 16; row ++) {
+                            for (int column = 0; column < 16; column ++) {
+                                int expected = frames[i].getRGB(
+                                    offset.x + tileX * 16 + column, offset.y + tileY * 16 + row
+                                ) & 0xffffff;
+                                int actual = (pixels[p] & 0xff) << 16 | (pixels[p + 1] & 0xff) << 8 | pixels[p + 2] & 0xff;
+                                Assertions.assertEquals(expected, actual);
+                                p += ShowContainer.BYTES_PER_PIXEL;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that a delta encoded container only stores the changed tiles and that frames are
+     * decoded both in order and by seeking.
+     */
+    @Test
+    public void testDelta() throws IOException {
+        File file = new File(tempDir, "delta.show");
+        int frameCount = 10;
+        BufferedImage frame = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        int[][] expected = new int[frameCount][];
+        try (ShowContainerWriter writer = new ShowContainerWriter(
+            file, ContainerEncoding.DELTA, 4, 16, 4, 4, new int[frameCount]
+        )) {
+            for (int i = 0; i < frameCount; i ++) {
+                // only the tile at (1, 2) changes
+                frame.setRGB(16 + i, 32 + i, 0xff0000 + i);
+                expected[i] = frame.getRGB(0, 0, 64, 64, null, 0, 64);
+                writer.write(frame, new Point(0, 0));
+            }
+            // 3 keyframes (16 tiles each) and 7 deltas (1 tile each) of 160 tiles
+            Assertions.assertEquals(55.0 / 160, writer.getTilesWrittenFraction(), 1e-9);
+        }
+
+        ShowContainer container = ShowContainer.open(file.toPath());
+        Assertions.assertEquals(4, container.getKeyframeInterval());
+        Assertions.assertTrue(container.isKeyframe(8));
+        Assertions.assertFalse(container.isKeyframe(7));
+        byte[] pixels = new byte[container.getFrameLength()];
+        for (int i = 0; i < frameCount; i ++) {
+            container.readFrame(i, pixels, i - 1);
+            assertFrame(expected[i], pixels);
+        }
+        for (int i: new int[] {6, 3, 9, 0}) {
+            container.readFrame(i, pixels);
+            assertFrame(expected[i], pixels);
+        }
+    }
+
+    /**
+     * Tests that runs of identical frames are written as a single record holding the run's time.
+     */
+    @Test
+    public void testCollapse() throws IOException {
+        File file = new File(tempDir, "collapse.show");
+        BufferedImage first = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        BufferedImage second = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        second.setRGB(20, 40, 0x00ff00);
+        BufferedImage[] frames = {first, first, second, second, second, first};
+        try (ShowContainerWriter writer = new ShowContainerWriter(
+            file, ContainerEncoding.DELTA, 2, 16, 4, 4, new int[] {1, 2, 3, 4, 5, 6}
+        )) {
+            for (BufferedImage frame: frames) {
+                writer.write(frame, new Point(0, 0));
+            }
+            Assertions.assertEquals(3, writer.getRecordCount());
+        }
+
+        ShowContainer container = ShowContainer.open(file.toPath());
+        Assertions.assertEquals(3, container.getFrameCount());
+        Assertions.assertEquals(3, container.getFrameTime(0));
+        Assertions.assertEquals(12, container.getFrameTime(1));
+        Assertions.assertEquals(6, container.getFrameTime(2));
+        byte[] pixels = new byte[container.getFrameLength()];
+        BufferedImage[] expected = {first, second, first};
+        for (int i = 0; i < expected.length; i ++) {
+            container.readFrame(i, pixels);
+            assertFrame(expected[i].getRGB(0, 0, 64, 64, null, 0, 64), pixels);
+        }
+    }
+
+    /**
+     * Tests that a raw frame record shorter than a frame is reported as corrupt.
+     */
+    @Test
+    public void testTruncatedRawRecord() throws IOException {
+        File file = new File(tempDir, "truncated.show");
+        BufferedImage frame = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        try (ShowContainerWriter writer = new ShowContainerWriter(
+            file, ContainerEncoding.RAW, 1, 16, 4, 4, new int[] {1, 2}
+        )) {
+            writer.write(frame, new Point(0, 0));
+            frame.setRGB(0, 0, 0xffffff);
+            writer.write(frame, new Point(0, 0));
+        }
+        // end the first record 3 bytes early
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long end = ShowContainer.HEADER_LENGTH + 2 * Integer.BYTES + Long.BYTES;
+            raf.seek(end);
+            long offset = raf.readLong();
+            raf.seek(end);
+            raf.writeLong(offset - 3);
+        }
+
+        ShowContainer container = ShowContainer.open(file.toPath());
+        byte[] pixels = new byte[container.getFrameLength()];
+        IOException e = Assertions.assertThrows(IOException.class, () -> container.readFrame(0, pixels));
+        Assertions.assertEquals("Truncated frame record", e.getMessage());
+    }
+
+    /**
+     * Tests that a container in a jar is extracted to the cache directory (once) so it can be mapped.
+     */
+    @Test
+    public void testOpenFromJar() throws IOException {
+        File file = new File(tempDir, "jarred.show");
+        BufferedImage frame = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        frame.setRGB(3, 5, 0x0000ff);
+        try (ShowContainerWriter writer = new ShowContainerWriter(
+            file, ContainerEncoding.RAW, 1, 16, 4, 4, new int[] {7}
+        )) {
+            writer.write(frame, new Point(0, 0));
+        }
+        URI jar = URI.create("jar:" + new File(tempDir, "mod.jar").toURI());
+        Path cacheDir = tempDir.toPath().resolve("cache");
+        try (FileSystem jarFileSystem = FileSystems.newFileSystem(jar, Map.of("create", "true"))) {
+            Path path = jarFileSystem.getPath("jarred.show");
+            Files.copy(file.toPath(), path);
+
+            ShowContainer container = ShowContainer.open(path, cacheDir);
+            Path extracted = cacheDir.resolve("jarred.show");
+            Assertions.assertTrue(Files.isRegularFile(extracted));
+            Assertions.assertEquals(7, container.getFrameTime(0));
+            byte[] pixels = new byte[container.getFrameLength()];
+            container.readFrame(0, pixels);
+            assertFrame(frame.getRGB(0, 0, 64, 64, null, 0, 64), pixels);
+
+            // an unchanged container isn't extracted again (which would replace the file)
+            Object fileKey = Files.readAttributes(extracted, BasicFileAttributes.class).fileKey();
+            ShowContainer.open(path, cacheDir);
+            Assertions.assertEquals(fileKey, Files.readAttributes(extracted, BasicFileAttributes.class).fileKey());
+        }
+    }
+
+    /**
+     * Asserts that a decoded 4x4 tile frame record matches a 64x64 image's pixels.
+     */
+    private static void assertFrame(int[] expected, byte[] pixels) {
+        int p = 0;
+        for (int tileY = 0; tileY < 4; tileY ++) {
+            for (int tileX = 0; tileX < 4; tileX ++) {
+                for (int row = 0; row < 16; row ++) {
+                    for (int column = 0; column < 16; column ++) {
+                        int rgb = expected[(tileY * 16 + row) * 64 + tileX * 16 + column] & 0xffffff;
+                        int actual = (pixels[p] & 0xff) << 16 | (pixels[p + 1] & 0xff) << 8 | pixels[p + 2] & 0xff;
+                        Assertions.assertEquals(rgb, actual);
+                        p += ShowContainer.BYTES_PER_PIXEL;
+                    }
+                }
+            }
+        }
+    }
+}